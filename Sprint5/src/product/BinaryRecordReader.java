@@ -0,0 +1,64 @@
+package product;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+// Reads game records written by BinaryRecordWriter, one after another from the same stream
+public class BinaryRecordReader implements Closeable {
+    private final DataInputStream in;
+
+    // Constructor wraps the stream records are read from
+    public BinaryRecordReader(InputStream in) {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+    }
+
+    // Reads the next record, or returns null at the end of the stream.
+    // Throws an IOException for data that is not a supported record.
+    public GameRecord read() throws IOException {
+        int magic;
+        try {
+            magic = in.readInt();
+        } catch (EOFException e) {
+            return null; // No more records
+        }
+        if (magic != BinaryRecordWriter.MAGIC) throw new IOException("Not a game record (bad magic number)");
+
+        int version = in.readUnsignedByte();
+        if (version != BinaryRecordWriter.VERSION) throw new IOException("Unsupported record version " + version);
+
+        int size = in.readUnsignedShort();
+        int flags = in.readUnsignedByte();
+        long seed = in.readLong();
+        int moveCount = in.readInt();
+        if (size < SOSEngine.MIN_BOARD_SIZE || size > SOSEngine.MAX_BOARD_SIZE) throw new IOException("Corrupt record header (board size " + size + ")");
+        if (moveCount < 0 || moveCount > (long) size * size) throw new IOException("Corrupt record header (" + moveCount + " moves)");
+
+        GameRecord record = newRecord(size, flags, seed);
+
+        int bytes = BinaryRecordWriter.moveBytes(size);
+        for (int i = 0; i < moveCount; i++) {
+            int move = 0;
+            for (int b = 0; b < bytes; b++) move = move << 8 | in.readUnsignedByte();
+            record.addPackedMove(move);
+        }
+        return record;
+    }
+
+    // Creates an empty record from a size and BinaryRecordWriter header flags
+    public static GameRecord newRecord(int size, int flags, long seed) {
+        return new GameRecord(size,
+            (flags & BinaryRecordWriter.FLAG_GENERAL) != 0 ? SOSEngine.Mode.GENERAL : SOSEngine.Mode.SIMPLE,
+            (flags & BinaryRecordWriter.FLAG_BLUE_COMPUTER) != 0 ? Player.PlayerType.COMPUTER : Player.PlayerType.HUMAN,
+            (flags & BinaryRecordWriter.FLAG_RED_COMPUTER) != 0 ? Player.PlayerType.COMPUTER : Player.PlayerType.HUMAN,
+            seed);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,85 @@
+package product;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Writes game records in the compact binary format, one after another on the same stream.
+//
+// Layout of a record (big-endian):
+//   int   magic "SOSR"
+//   byte  format version
+//   short board size (unsigned)
+//   byte  flags: bit 0 General mode, bit 1 blue is a computer, bit 2 red is a computer
+//   long  seed
+//   int   move count
+//   moves, moveBytes(size) bytes each: cell << 2 | letter bit (O) << 1 | player bit (red)
+// A move takes one byte on boards up to 8x8, two up to 128x128 and three above that.
+public class BinaryRecordWriter implements Closeable {
+
+    public static final int MAGIC = 0x534F5352; // "SOSR"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 20;
+
+    // Header flag bits
+    public static final int FLAG_GENERAL = 1;
+    public static final int FLAG_BLUE_COMPUTER = 2;
+    public static final int FLAG_RED_COMPUTER = 4;
+
+    private final DataOutputStream out;
+
+    // Constructor wraps the stream records are written to
+    public BinaryRecordWriter(OutputStream out) {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+    }
+
+    // Number of bytes one move takes on a board of the given size
+    public static int moveBytes(int size) {
+        long codes = (long) size * size * 4; // Distinct packed moves
+        if (codes <= 1 << 8) return 1;
+        if (codes <= 1 << 16) return 2;
+        return 3;
+    }
+
+    // Total number of bytes a record takes in the binary format
+    public static int encodedLength(GameRecord record) {
+        return HEADER_BYTES + record.getMoveCount() * moveBytes(record.getSize());
+    }
+
+    // Header flags for a game's mode and player types
+    public static int headerFlags(SOSEngine.Mode mode, Player.PlayerType blueType, Player.PlayerType redType) {
+        int flags = 0;
+        if (mode == SOSEngine.Mode.GENERAL) flags |= FLAG_GENERAL;
+        if (blueType == Player.PlayerType.COMPUTER) flags |= FLAG_BLUE_COMPUTER;
+        if (redType == Player.PlayerType.COMPUTER) flags |= FLAG_RED_COMPUTER;
+        return flags;
+    }
+
+    // Writes one record
+    public void write(GameRecord record) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeShort(record.getSize());
+        out.writeByte(headerFlags(record.getMode(), record.getBlueType(), record.getRedType()));
+        out.writeLong(record.getSeed());
+        out.writeInt(record.getMoveCount());
+
+        int bytes = moveBytes(record.getSize());
+        for (int i = 0; i < record.getMoveCount(); i++) {
+            int move = record.getPackedMove(i);
+            for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8) out.writeByte(move >>> shift);
+        }
+    }
+
+    // Pushes buffered bytes to the underlying stream
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
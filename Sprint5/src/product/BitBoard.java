@@ -0,0 +1,275 @@
+package product;
+
+import java.util.Arrays;
+
+// Bit-packed SOS board: one bit per cell in an S-plane and an O-plane, row-major (cell = row * size + col).
+// Pattern searches work on 64 cells per word; a FreeCellSet tracks the empty cells.
+public class BitBoard {
+
+    // Cell contents
+    public static final int EMPTY = 0;
+    public static final int S = 1;
+    public static final int O = 2;
+
+    // Line directions for pattern searches
+    public static final int ROW = 0;                // left to right
+    public static final int COLUMN = 1;             // top to bottom
+    public static final int PRIMARY_DIAGONAL = 2;   // top-left to bottom-right
+    public static final int SECONDARY_DIAGONAL = 3; // top-right to bottom-left
+
+    // The 8 symmetries of a square board (n = size - 1). SOS lines map onto SOS lines under each of them,
+    // so positions that differ by a symmetry have the same value.
+    public static final int SYMMETRIES = 8;
+    public static final int IDENTITY = 0;        // (row, col)
+    public static final int ROTATE_90 = 1;       // (col, n - row)
+    public static final int ROTATE_180 = 2;      // (n - row, n - col)
+    public static final int ROTATE_270 = 3;      // (n - col, row)
+    public static final int MIRROR_COLUMNS = 4;  // (row, n - col)
+    public static final int MIRROR_ROWS = 5;     // (n - row, col)
+    public static final int TRANSPOSE = 6;       // (col, row)
+    public static final int ANTI_TRANSPOSE = 7;  // (n - col, n - row)
+
+    private final int size; // Size of the board
+    private final int cellCount; // size * size
+    private final int words; // Longs per plane
+    private final long[] sPlane; // Bit set for every S
+    private final long[] oPlane; // Bit set for every O
+    private final long[] validCells; // Bit set for every cell on the board
+    private final long[][] windowStarts; // Per direction, cells where a 3-cell window fits on the board
+    private final long[] scratch; // Reused buffer for shifted planes
+    private final FreeCellSet freeCells; // Empty cells, updated on every set and remove
+    private final long[] symmetryHashes = new long[SYMMETRIES]; // Zobrist hash of the letters under each symmetry
+
+    // Constructor initializes an empty board
+    public BitBoard(int size) {
+        this.size = size;
+        this.cellCount = size * size;
+        this.words = (cellCount + 63) >>> 6;
+        this.sPlane = new long[words];
+        this.oPlane = new long[words];
+        this.validCells = new long[words];
+        this.scratch = new long[words];
+        this.windowStarts = new long[4][words];
+        this.freeCells = new FreeCellSet(cellCount);
+
+        for (int cell = 0; cell < cellCount; cell++) {
+            validCells[cell >>> 6] |= 1L << cell;
+            int row = cell / size;
+            int col = cell % size;
+            if (col <= size - 3) windowStarts[ROW][cell >>> 6] |= 1L << cell;
+            if (row <= size - 3) windowStarts[COLUMN][cell >>> 6] |= 1L << cell;
+            if (row <= size - 3 && col <= size - 3) windowStarts[PRIMARY_DIAGONAL][cell >>> 6] |= 1L << cell;
+            if (row <= size - 3 && col >= 2) windowStarts[SECONDARY_DIAGONAL][cell >>> 6] |= 1L << cell;
+        }
+    }
+
+    // Removes every letter from the board
+    public void clear() {
+        Arrays.fill(sPlane, 0L);
+        Arrays.fill(oPlane, 0L);
+        freeCells.fill();
+        Arrays.fill(symmetryHashes, 0L);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    // Converts a row and column to a cell index
+    public int cellIndex(int row, int col) {
+        return row * size + col;
+    }
+
+    // Cell index distance between neighbouring cells of a window in the given direction
+    public int step(int direction) {
+        switch (direction) {
+            case ROW: return 1;
+            case COLUMN: return size;
+            case PRIMARY_DIAGONAL: return size + 1;
+            default: return size - 1;
+        }
+    }
+
+    // Row and column change between neighbouring cells of a window in the given direction
+    public static int rowStep(int direction) {
+        return direction == ROW ? 0 : 1;
+    }
+
+    public static int colStep(int direction) {
+        switch (direction) {
+            case COLUMN: return 0;
+            case SECONDARY_DIAGONAL: return -1;
+            default: return 1;
+        }
+    }
+
+    // Returns EMPTY, S or O for a cell
+    public int get(int cell) {
+        long bit = 1L << cell;
+        if ((sPlane[cell >>> 6] & bit) != 0) return S;
+        if ((oPlane[cell >>> 6] & bit) != 0) return O;
+        return EMPTY;
+    }
+
+    public int get(int row, int col) {
+        return get(cellIndex(row, col));
+    }
+
+    public boolean isEmpty(int cell) {
+        return ((sPlane[cell >>> 6] | oPlane[cell >>> 6]) & (1L << cell)) == 0;
+    }
+
+    // Puts a letter on an empty cell
+    public void set(int cell, int letter) {
+        long bit = 1L << cell;
+        if (letter == S) sPlane[cell >>> 6] |= bit;
+        else oPlane[cell >>> 6] |= bit;
+        freeCells.remove(cell);
+        updateSymmetryHashes(cell, letter);
+    }
+
+    // Empties a cell that holds a letter
+    public void remove(int cell) {
+        updateSymmetryHashes(cell, get(cell));
+        long bit = ~(1L << cell);
+        sPlane[cell >>> 6] &= bit;
+        oPlane[cell >>> 6] &= bit;
+        freeCells.add(cell);
+    }
+
+    // Returns the Zobrist hash of the letters on the board, kept up to date by set and remove
+    public long getHash() {
+        return symmetryHashes[IDENTITY];
+    }
+
+    // Returns the hash the board would have after applying a symmetry to it
+    public long getSymmetryHash(int symmetry) {
+        return symmetryHashes[symmetry];
+    }
+
+    // Returns the same hash for all 8 symmetric versions of a position: the smallest of their hashes.
+    // Tables keyed by it store each class of symmetric positions once.
+    public long getCanonicalHash() {
+        return symmetryHashes[getCanonicalSymmetry()];
+    }
+
+    // Returns the symmetry that takes the board to its canonical orientation
+    public int getCanonicalSymmetry() {
+        int best = IDENTITY;
+        for (int symmetry = 1; symmetry < SYMMETRIES; symmetry++) {
+            if (symmetryHashes[symmetry] < symmetryHashes[best]) best = symmetry;
+        }
+        return best;
+    }
+
+    // Returns where a symmetry moves a cell
+    public int transformCell(int symmetry, int cell) {
+        int n = size - 1;
+        int row = cell / size;
+        int col = cell % size;
+        switch (symmetry) {
+            case ROTATE_90: return col * size + (n - row);
+            case ROTATE_180: return (n - row) * size + (n - col);
+            case ROTATE_270: return (n - col) * size + row;
+            case MIRROR_COLUMNS: return row * size + (n - col);
+            case MIRROR_ROWS: return (n - row) * size + col;
+            case TRANSPOSE: return col * size + row;
+            case ANTI_TRANSPOSE: return (n - col) * size + (n - row);
+            default: return cell;
+        }
+    }
+
+    // Returns the symmetry that undoes another (the rotations by 90 and 270 undo each other, the rest undo themselves)
+    public static int inverseSymmetry(int symmetry) {
+        if (symmetry == ROTATE_90) return ROTATE_270;
+        if (symmetry == ROTATE_270) return ROTATE_90;
+        return symmetry;
+    }
+
+    // Toggles a letter on a cell in all 8 hashes, each at the cell's image under that symmetry
+    private void updateSymmetryHashes(int cell, int letter) {
+        for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+            symmetryHashes[symmetry] ^= ZobristHash.cellKey(transformCell(symmetry, cell), letter);
+        }
+    }
+
+    // Returns the incrementally maintained set of empty cells
+    public FreeCellSet getFreeCells() {
+        return freeCells;
+    }
+
+    public int getFilledCount() {
+        return cellCount - freeCells.size();
+    }
+
+    public boolean isFull() {
+        return freeCells.isEmpty();
+    }
+
+    // Writes the bit set of empty cells into dst
+    public void emptyCells(long[] dst) {
+        for (int w = 0; w < words; w++) dst[w] = validCells[w] & ~(sPlane[w] | oPlane[w]);
+    }
+
+    // Allocates a bit set with one bit per cell, sized for this board
+    public long[] newCellSet() {
+        return new long[words];
+    }
+
+    // Finds every window in a direction whose three cells hold (first, second, third), where each is EMPTY, S or O.
+    // Bit i of dst is set when the window starts at cell i.
+    public void findPattern(int direction, int first, int second, int third, long[] dst) {
+        int step = step(direction);
+        long[] starts = windowStarts[direction];
+        for (int w = 0; w < words; w++) dst[w] = starts[w];
+        andShifted(dst, first, 0);
+        andShifted(dst, second, step);
+        andShifted(dst, third, 2 * step);
+    }
+
+    // Counts every SOS currently on the board in all four directions
+    public int countSOS() {
+        int count = 0;
+        for (int direction = ROW; direction <= SECONDARY_DIAGONAL; direction++) {
+            findPattern(direction, S, O, S, scratch);
+            for (int w = 0; w < words; w++) count += Long.bitCount(scratch[w]);
+        }
+        return count;
+    }
+
+    // ANDs dst with the plane of a letter shifted so that bit i holds cell i + offset
+    private void andShifted(long[] dst, int letter, int offset) {
+        int wordShift = offset >>> 6;
+        int bitShift = offset & 63;
+        for (int w = 0; w < words; w++) {
+            int src = w + wordShift;
+            long low = src < words ? plane(letter, src) : 0L;
+            long high = src + 1 < words ? plane(letter, src + 1) : 0L;
+            long shifted = bitShift == 0 ? low : (low >>> bitShift) | (high << (64 - bitShift));
+            dst[w] &= shifted;
+        }
+    }
+
+    // Returns one word of the plane for a letter (EMPTY means neither S nor O)
+    private long plane(int letter, int w) {
+        if (letter == S) return sPlane[w];
+        if (letter == O) return oPlane[w];
+        return validCells[w] & ~(sPlane[w] | oPlane[w]);
+    }
+
+    // Returns the index of the first set bit at or after from, or -1 if none
+    public static int nextSetBit(long[] bits, int from) {
+        int w = from >>> 6;
+        if (w >= bits.length) return -1;
+        long word = bits[w] & (-1L << from);
+        while (true) {
+            if (word != 0) return (w << 6) + Long.numberOfTrailingZeros(word);
+            if (++w == bits.length) return -1;
+            word = bits[w];
+        }
+    }
+}
@@ -10,11 +10,15 @@ import javafx.scene.shape.Line;
 
 public class Board {
 
+    public static final int CANVAS_MIN_SIZE = 16; // Boards this large are drawn on one canvas instead of a button per cell
+
     private int size; // Size of the board
     private GridPane boardVisual; // Visual representation of the board
     private Pane linePane; // Pane for drawing winning lines
+    private Button[][] buttons; // Board buttons by row and column, filled by createBoard, null on canvas boards
+    private CanvasBoardRenderer canvasRenderer; // Set instead of buttons on canvas boards
     private GameController gameController; // Game controller to manage the game
-    private String[][] boardState; // Board state array to track moves
+    private SOSEngine engine; // Headless engine holding the board state
     private Game game;
 
     // Constructor initializes the board with specified game, game controller, and visual grid
@@ -22,13 +26,11 @@ public class Board {
         this.game = game;
         this.gameController = gameController;
         this.boardVisual = boardVisual;
-        this.size = gameController.getSize();
+        this.engine = game.getEngine();
+        this.size = engine.getSize();
 
         linePane = new Pane(); // Pane for drawing lines
         linePane.setMouseTransparent(true); // Ensure mouse events are ignored on this Pane
-
-        this.boardState = new String[size][size]; // Initialize the board state
-        setBoardStateEmpty();
     }
 
     // Getter for board visual
@@ -36,41 +38,41 @@ public class Board {
         return boardVisual;
     }
 
-    // Getter for board state
+    // Returns a snapshot of the board state as "S", "O" or "" strings
     public String[][] getBoardState() {
+        String[][] boardState = new String[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                boardState[i][j] = SOSEngine.letterString(engine.getCell(i, j));
+            }
+        }
         return boardState;
     }
 
-    // Sets board State
-    public void setBoardState(String[][] boardState) {
-        this.boardState = boardState;
-    }
-
     // Resets both board visual and line pane
     public void resetBoardState() {
-        setBoardStateEmpty(); // Initialize each board State cell with an empty string
+        engine.reset(); // Clear the engine's board, scores and scored sequences
         linePane.getChildren().clear(); // Remove all lines from Pane
         boardVisual.getChildren().clear(); // Remove buttons from the GridPane
+        buttons = null; // Forget the removed buttons
+        canvasRenderer = null; // Forget the removed canvas
         boardVisual.getColumnConstraints().clear(); // Clear column constraints
         boardVisual.getRowConstraints().clear(); // Clear row constraints
 
         gameController.refreshScoreBoard(); // Update score display
     }
 
-    // Sets up initial board state with empty cells
-    private void setBoardStateEmpty() {
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                this.boardState[i][j] = ""; // Initialize each cell with an empty string
-            }
-        }
-    }
-    
     // Creates the game board and sets up the grid structure
     public void createBoard() {
         // Clear existing board setup
         resetBoardState(); 
 
+        if (size >= CANVAS_MIN_SIZE) {
+            createCanvasBoard();
+            return;
+        }
+
+        buttons = new Button[size][size];
         for (int col = 0; col < size; col++) {
             // Add constraints for each row and column
             addColumnAndRowConstraints(); 
@@ -78,6 +80,7 @@ public class Board {
             for (int row = 0; row < size; row++) {
                 Button button = createBoardButton(row, col); // Create button
                 boardVisual.add(button, col, row); // Add button to the grid at specified position
+                buttons[row][col] = button; // Remember it for direct lookup
             }
         }
 
@@ -85,6 +88,27 @@ public class Board {
         configureBoardVisual();
     }
 
+    // Helper method to draw a large board on a single canvas, clicks being hit-tested to cells
+    private void createCanvasBoard() {
+        double side = Math.min(boardVisual.getPrefWidth(), boardVisual.getPrefHeight());
+        if (side <= 0) side = 600; // Default board size of the view
+
+        canvasRenderer = new CanvasBoardRenderer(engine, side);
+        canvasRenderer.setOnCellClicked((row, col) -> {
+            // Handle the player's move
+            game.getGameLogic().handleButtonClick(row, col, null);
+            // Update computer move after each player move
+            game.computerLogic.manageComputerMove();
+        });
+        canvasRenderer.redrawAll();
+
+        boardVisual.setHgap(0);
+        boardVisual.setVgap(0);
+        boardVisual.setGridLinesVisible(false); // The canvas draws its own grid
+        boardVisual.setStyle("-fx-border-color: black; -fx-border-width: 2px;");
+        boardVisual.add(canvasRenderer.getCanvas(), 0, 0);
+    }
+
     // Helper method to add column and row constraints
     private void addColumnAndRowConstraints() {
         ColumnConstraints colConstr = new ColumnConstraints();
@@ -126,31 +150,34 @@ public class Board {
     public Button getButtonAt(int row, int col) {
         // Check if the indices are within the bounds of the grid
         if (row < 0 || row >= size || col < 0 || col >= size) return null; // Return null if indices are out of bounds
-        
-        // Calculate the index in the children list based on row and column
-        for (javafx.scene.Node node : boardVisual.getChildren()) {
-            // Check if the node is a button and its position matches the requested row and column
-            if (node instanceof Button && 
-                GridPane.getRowIndex(node) == row && 
-                GridPane.getColumnIndex(node) == col) {
-                return (Button) node; // Return the button if found
-            }
-        }
-        
-        return null; // Return null if no button is found at the specified position
+        if (buttons == null) return null; // Canvas board, or not created yet
+
+        return buttons[row][col]; // Direct lookup
     }
 
-    // Enable or disable all buttons on the board (for end of game or other cases)
+    // Enable or disable all buttons on the board (for end of game or other cases). A canvas board has no
+    // buttons and only turns its clicks off, so a computer turn does not walk size * size cells.
     public void setButtonsDisabled(boolean disable) {
-        for (javafx.scene.Node node : boardVisual.getChildren()) {
-            if (node instanceof Button) {
-                ((Button) node).setDisable(disable);
+        if (canvasRenderer != null) {
+            canvasRenderer.setDisabled(disable);
+            return;
+        }
+        if (buttons == null) return;
+
+        for (Button[] buttonRow : buttons) {
+            for (Button button : buttonRow) {
+                if (button != null) button.setDisable(disable);
             }
         }
     }
 
     // Draws a scored line from the center of one button to another
     public void drawScoredLine(int startRow, int startCol, int endRow, int endCol, Player player) {
+        if (canvasRenderer != null) {
+            canvasRenderer.addLine(startRow, startCol, endRow, endCol, player.getPlayerColor() == Player.PlayerColor.Blue ? SOSEngine.BLUE : SOSEngine.RED);
+            return;
+        }
+
         double buttonWidth = boardVisual.getWidth() / size; // Width of each button
         double buttonHeight = boardVisual.getHeight() / size; // Height of each button
 
@@ -166,5 +193,71 @@ public class Board {
 
         linePane.getChildren().add(line); // Add line to linePane for it to be visual
     }
+
+    // Shows the position after the first moveCount moves of a record, with the lines scored by a replay engine
+    // at that position. Replay navigates on its own engine, so the game's engine (and its score listener) is not touched.
+    public void showPosition(GameRecord record, int moveCount, SOSEngine position) {
+        if (canvasRenderer != null) {
+            canvasRenderer.clear();
+            for (int i = 0; i < moveCount; i++) {
+                canvasRenderer.setCell(record.getMoveRow(i), record.getMoveCol(i), record.getMoveLetter(i), record.getMovePlayer(i));
+            }
+            canvasRenderer.redrawAll();
+        } else {
+            showButtonPosition(record, moveCount);
+        }
+
+        position.reportScoredLines((startRow, startCol, endRow, endCol, player) ->
+            drawScoredLine(startRow, startCol, endRow, endCol, gameController.getPlayer(player)));
+    }
+
+    // Helper method to set the button letters for showPosition
+    private void showButtonPosition(GameRecord record, int moveCount) {
+        linePane.getChildren().clear();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                Button button = getButtonAt(row, col);
+                button.setText("");
+                button.setStyle("");
+            }
+        }
+
+        // Letters in the color of the player who placed them
+        for (int i = 0; i < moveCount; i++) {
+            Button button = getButtonAt(record.getMoveRow(i), record.getMoveCol(i));
+            button.setText(SOSEngine.letterString(record.getMoveLetter(i)));
+            button.setStyle(String.format("-fx-text-fill: %s; -fx-font-size: 18px;", record.getMovePlayer(i) == SOSEngine.BLUE ? "blue" : "red"));
+        }
+    }
+
+    // Repaints a cell after a letter is placed in it. Button boards are updated through the button itself.
+    public void refreshCell(int row, int col, int player) {
+        if (canvasRenderer != null) canvasRenderer.placeLetter(row, col, player);
+    }
+
+    // Empties a cell on screen (used when a move is undone)
+    public void clearCell(int row, int col) {
+        if (canvasRenderer != null) {
+            canvasRenderer.clearCell(row, col);
+            return;
+        }
+
+        Button button = getButtonAt(row, col);
+        if (button != null) {
+            button.setText("");
+            button.setStyle("");
+        }
+    }
+
+    // Removes the most recently drawn scored line (used when a move is undone)
+    public void removeLastScoredLine() {
+        if (canvasRenderer != null) {
+            canvasRenderer.removeLastLine();
+            return;
+        }
+
+        int lines = linePane.getChildren().size();
+        if (lines > 0) linePane.getChildren().remove(lines - 1);
+    }
     
 }
\ No newline at end of file
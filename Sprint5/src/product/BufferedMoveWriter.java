@@ -0,0 +1,187 @@
+package product;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Appends recorded move lines to a file from a background thread. Lines wait in a bounded queue and are
+// written in batches of up to flushSize lines, or whatever arrived within flushIntervalMillis, with one
+// file open per batch instead of one per move. flush() blocks until everything queued so far is on disk, and
+// throws if some of it could not be written.
+public class BufferedMoveWriter {
+
+    // Queue markers, compared by identity
+    private static final String FLUSH = new String("<flush>");
+    private static final String STOP = new String("<stop>");
+
+    private final String filePath;
+    private final BlockingQueue<String> queue;
+    private final int flushSize;
+    private final long flushIntervalMillis;
+    private final Thread writerThread;
+
+    private final Object queueLock = new Object(); // Makes the closed check and the enqueue one step, see close()
+    private final Object progressLock = new Object();
+    private long queuedLines; // Lines handed to the queue (guarded by progressLock)
+    private long handledLines; // Lines the writer thread is done with, written or not (guarded by progressLock)
+    private IOException writeError; // First failed write not yet reported by flush (guarded by progressLock)
+    private volatile boolean closed;
+
+    // Constructor starts the daemon writer thread
+    public BufferedMoveWriter(String filePath, int queueCapacity, int flushSize, long flushIntervalMillis) {
+        this.filePath = filePath;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.flushSize = flushSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+
+        this.writerThread = new Thread(this::runWriter, "game-recorder-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    // Queues a line for writing; blocks only if the queue is full
+    public void append(String line) {
+        synchronized (queueLock) {
+            if (closed) throw new IllegalStateException("Writer is closed");
+            if (!putQuietly(line)) return; // Interrupted: the line is not queued, so flush must not wait for it
+            synchronized (progressLock) {
+                queuedLines++;
+            }
+        }
+    }
+
+    // Blocks until every line queued before this call has been written. Throws if a line could not be written
+    // since the last flush; the error is reported once.
+    public void flush() throws IOException {
+        long target;
+        synchronized (queueLock) {
+            if (closed) return;
+            synchronized (progressLock) {
+                target = queuedLines;
+            }
+            putQuietly(FLUSH);
+        }
+        awaitWritten(target);
+
+        synchronized (progressLock) {
+            if (writeError != null) {
+                IOException error = writeError;
+                writeError = null;
+                throw error;
+            }
+            if (handledLines < target) throw new InterruptedIOException("Interrupted before the queued moves were written");
+        }
+    }
+
+    // Writes everything still queued and stops the writer thread. STOP is queued under the same lock as the lines,
+    // so no line can be queued after it and be left behind.
+    public void close() {
+        synchronized (queueLock) {
+            if (closed) return;
+            closed = true;
+            putQuietly(STOP);
+        }
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Queues a line or marker, returning false if the thread was interrupted before it was queued
+    private boolean putQuietly(String line) {
+        try {
+            queue.put(line);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void awaitWritten(long target) {
+        synchronized (progressLock) {
+            while (handledLines < target && writerThread.isAlive()) {
+                try {
+                    progressLock.wait(flushIntervalMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // Writer thread: collect a batch, append it to the file, report progress
+    private void runWriter() {
+        List<String> batch = new ArrayList<>(flushSize);
+        boolean stopping = false;
+
+        while (!stopping) {
+            boolean flushRequested = false;
+            try {
+                String line = queue.take(); // Wait for the first line of a batch
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+
+                while (true) {
+                    if (line == STOP) stopping = true;
+                    else if (line == FLUSH) flushRequested = true;
+                    else batch.add(line);
+
+                    if (stopping || flushRequested || batch.size() >= flushSize) break;
+
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+                    line = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (line == null) break; // Flush interval elapsed
+                }
+            } catch (InterruptedException e) {
+                stopping = true;
+            }
+
+            // Anything still queued after STOP was sent before close() returned control, so drain it too
+            if (stopping) {
+                for (String line = queue.poll(); line != null; line = queue.poll()) {
+                    if (line != FLUSH && line != STOP) batch.add(line);
+                }
+            }
+
+            writeBatch(batch);
+        }
+
+        synchronized (progressLock) {
+            progressLock.notifyAll();
+        }
+    }
+
+    // Appends a batch to the file with a single open and reports the lines as handled, keeping the error
+    // for flush if they could not be written
+    private void writeBatch(List<String> batch) {
+        IOException error = null;
+        if (!batch.isEmpty()) {
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath, true))) { // 'true' to append to the file
+                for (String line : batch) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+            } catch (IOException e) {
+                // Handle file writing errors
+                System.err.println("Error saving game moves: " + e.getMessage());
+                error = e;
+            }
+        }
+
+        synchronized (progressLock) {
+            handledLines += batch.size();
+            if (error != null && writeError == null) writeError = error;
+            progressLock.notifyAll();
+        }
+        batch.clear();
+    }
+}
@@ -0,0 +1,202 @@
+package product;
+
+import java.util.Arrays;
+
+// What a canvas board shows, kept apart from the drawing so it runs without JavaFX: the letter and owner of each
+// cell, the scored lines, and the geometry that maps canvas points to cells. Every line is also listed under the
+// three cells it crosses, so the lines to repaint around a changed cell are found by looking at its neighbours
+// instead of at every line on the board.
+public class CanvasBoardModel {
+
+    private static final int LINE_FIELDS = 5; // startRow, startCol, endRow, endCol, player
+    private static final int LINE_CELLS = 3; // An SOS line crosses three cells
+
+    private final int size;
+    private final double cellSize;
+    private final byte[] letters; // Letter drawn in each cell (EMPTY, S or O)
+    private final byte[] owners; // Player who placed the letter in each cell, -1 if empty
+    private int[] lines = new int[64 * LINE_FIELDS]; // Scored lines in drawing order
+    private int lineCount;
+    private final int[] cellLines; // Newest line entry (line * LINE_CELLS + cell of the line) through each cell, -1 if none
+    private int[] nextEntry = new int[64 * LINE_CELLS]; // Next older line entry through the same cell, -1 if none
+    private int[] found = new int[64]; // Reused result buffer of linesCrossing
+    private long linesVisited; // Lines looked at by linesCrossing so far
+
+    // Constructor creates an empty board drawn on a square of the given side length
+    public CanvasBoardModel(int size, double side) {
+        this.size = size;
+        this.cellSize = side / size;
+        this.letters = new byte[size * size];
+        this.owners = new byte[size * size];
+        this.cellLines = new int[size * size];
+        clear();
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    // Hit test: returns the cell index under a canvas point, or -1 outside the board
+    public int cellAt(double x, double y) {
+        if (x < 0 || y < 0) return -1;
+        int row = (int) (y / cellSize);
+        int col = (int) (x / cellSize);
+        if (row >= size || col >= size) return -1;
+        return row * size + col;
+    }
+
+    // Forgets all letters and lines
+    public void clear() {
+        Arrays.fill(letters, (byte) SOSEngine.EMPTY);
+        Arrays.fill(owners, (byte) -1);
+        Arrays.fill(cellLines, -1);
+        lineCount = 0;
+    }
+
+    // Sets the letter in a cell and who placed it
+    public void setCell(int row, int col, int letter, int player) {
+        letters[row * size + col] = (byte) letter;
+        owners[row * size + col] = (byte) player;
+    }
+
+    public int getLetter(int row, int col) {
+        return letters[row * size + col];
+    }
+
+    public int getOwner(int row, int col) {
+        return owners[row * size + col];
+    }
+
+    // Adds a scored line (three cells from start to end) and returns its index
+    public int addLine(int startRow, int startCol, int endRow, int endCol, int player) {
+        if ((lineCount + 1) * LINE_FIELDS > lines.length) {
+            lines = Arrays.copyOf(lines, lines.length * 2);
+            nextEntry = Arrays.copyOf(nextEntry, nextEntry.length * 2);
+        }
+        int line = lineCount++;
+        int at = line * LINE_FIELDS;
+        lines[at] = startRow;
+        lines[at + 1] = startCol;
+        lines[at + 2] = endRow;
+        lines[at + 3] = endCol;
+        lines[at + 4] = player;
+
+        // List the line first under each of its cells
+        for (int i = 0; i < LINE_CELLS; i++) {
+            int cell = lineCell(line, i);
+            nextEntry[line * LINE_CELLS + i] = cellLines[cell];
+            cellLines[cell] = line * LINE_CELLS + i;
+        }
+        return line;
+    }
+
+    // Removes the most recently added line and returns the region it covered ({firstRow, firstCol, lastRow,
+    // lastCol}), or null if there are no lines. Being the newest, it is first in the list of each of its cells.
+    public int[] removeLastLine() {
+        if (lineCount == 0) return null;
+        int line = --lineCount;
+        for (int i = 0; i < LINE_CELLS; i++) cellLines[lineCell(line, i)] = nextEntry[line * LINE_CELLS + i];
+        return lineRegion(line);
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    // Getters for the fields of a line
+    public int getLineStartRow(int line) {
+        return lines[line * LINE_FIELDS];
+    }
+
+    public int getLineStartCol(int line) {
+        return lines[line * LINE_FIELDS + 1];
+    }
+
+    public int getLineEndRow(int line) {
+        return lines[line * LINE_FIELDS + 2];
+    }
+
+    public int getLineEndCol(int line) {
+        return lines[line * LINE_FIELDS + 3];
+    }
+
+    public int getLinePlayer(int line) {
+        return lines[line * LINE_FIELDS + 4];
+    }
+
+    // Rectangle of cells a line is drawn over, as {firstRow, firstCol, lastRow, lastCol}
+    public int[] lineRegion(int line) {
+        int at = line * LINE_FIELDS;
+        return new int[]{Math.min(lines[at], lines[at + 2]), Math.min(lines[at + 1], lines[at + 3]),
+            Math.max(lines[at], lines[at + 2]), Math.max(lines[at + 1], lines[at + 3])};
+    }
+
+    // Returns the lines whose rectangle overlaps a rectangle of cells, oldest first (the order they are drawn in).
+    // Such a line crosses the rectangle or one of the cells around it, so only those cells' lists are looked at,
+    // unless there are fewer lines on the board than that would visit.
+    public int[] linesCrossing(int firstRow, int firstCol, int lastRow, int lastCol) {
+        int fromRow = Math.max(0, firstRow - 1);
+        int fromCol = Math.max(0, firstCol - 1);
+        int toRow = Math.min(size - 1, lastRow + 1);
+        int toCol = Math.min(size - 1, lastCol + 1);
+        int count = 0;
+
+        // Up to 12 lines (4 directions, 3 cells each) are listed under a cell
+        if ((long) (toRow - fromRow + 1) * (toCol - fromCol + 1) * LINE_CELLS * 4 >= lineCount) {
+            for (int line = 0; line < lineCount; line++) {
+                linesVisited++;
+                if (overlaps(line, firstRow, firstCol, lastRow, lastCol)) count = addFound(count, line);
+            }
+            return Arrays.copyOf(found, count);
+        }
+
+        for (int row = fromRow; row <= toRow; row++) {
+            for (int col = fromCol; col <= toCol; col++) {
+                for (int entry = cellLines[row * size + col]; entry >= 0; entry = nextEntry[entry]) {
+                    linesVisited++;
+                    int line = entry / LINE_CELLS;
+                    if (overlaps(line, firstRow, firstCol, lastRow, lastCol)) count = addFound(count, line);
+                }
+            }
+        }
+
+        // A line listed under several of the cells is found more than once
+        Arrays.sort(found, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || found[i] != found[unique - 1]) found[unique++] = found[i];
+        }
+        return Arrays.copyOf(found, unique);
+    }
+
+    // Number of lines linesCrossing has looked at so far, for checking that redraws do not grow with the line count
+    public long getLinesVisited() {
+        return linesVisited;
+    }
+
+    // Helper method to add a line to the result buffer, returning the new count
+    private int addFound(int count, int line) {
+        if (count == found.length) found = Arrays.copyOf(found, found.length * 2);
+        found[count] = line;
+        return count + 1;
+    }
+
+    // Helper method to check if the rectangle of a line overlaps a rectangle of cells
+    private boolean overlaps(int line, int firstRow, int firstCol, int lastRow, int lastCol) {
+        int at = line * LINE_FIELDS;
+        if (Math.max(lines[at], lines[at + 2]) < firstRow || Math.min(lines[at], lines[at + 2]) > lastRow) return false;
+        return Math.max(lines[at + 1], lines[at + 3]) >= firstCol && Math.min(lines[at + 1], lines[at + 3]) <= lastCol;
+    }
+
+    // Helper method to return the index of the i-th cell (0 to 2) of a line
+    private int lineCell(int line, int i) {
+        int at = line * LINE_FIELDS;
+        int row = lines[at] + (lines[at + 2] - lines[at]) / 2 * i;
+        int col = lines[at + 1] + (lines[at + 3] - lines[at + 1]) / 2 * i;
+        return row * size + col;
+    }
+}
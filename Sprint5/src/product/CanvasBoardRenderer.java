@@ -0,0 +1,144 @@
+package product;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+// Draws a whole board on one Canvas: grid, letters and scored lines. Clicks are hit-tested to a cell, and
+// a change repaints only the cells it touches (plus the lines crossing them), so the scene graph holds a
+// single node and per-move drawing grows neither with the board nor with the lines on it. What is shown is
+// kept in a CanvasBoardModel.
+public class CanvasBoardRenderer {
+
+    // Receives clicks on a cell
+    public interface CellClickHandler {
+        void onCellClicked(int row, int col);
+    }
+
+    private final SOSEngine engine; // Letters of moves played on the board are read from the engine
+    private final int size;
+    private final Canvas canvas;
+    private final GraphicsContext gc;
+    private final double cellSize;
+    private final CanvasBoardModel model; // Letters, lines and cell geometry
+    private boolean disabled;
+    private CellClickHandler clickHandler;
+
+    // Constructor creates a square canvas of the given side length
+    public CanvasBoardRenderer(SOSEngine engine, double side) {
+        this.engine = engine;
+        this.size = engine.getSize();
+        this.canvas = new Canvas(side, side);
+        this.gc = canvas.getGraphicsContext2D();
+        this.model = new CanvasBoardModel(size, side);
+        this.cellSize = model.getCellSize();
+
+        canvas.setOnMouseClicked(event -> {
+            int cell = model.cellAt(event.getX(), event.getY());
+            if (cell >= 0 && !disabled && clickHandler != null) clickHandler.onCellClicked(cell / size, cell % size);
+        });
+    }
+
+    public Canvas getCanvas() {
+        return canvas;
+    }
+
+    public void setOnCellClicked(CellClickHandler clickHandler) {
+        this.clickHandler = clickHandler;
+    }
+
+    // Ignores clicks while disabled
+    public void setDisabled(boolean disabled) {
+        this.disabled = disabled;
+    }
+
+    // Hit test: returns the cell index under a canvas point, or -1 outside the board
+    public int cellAt(double x, double y) {
+        return model.cellAt(x, y);
+    }
+
+    // Forgets all letters and lines without drawing (followed by setCell calls and redrawAll)
+    public void clear() {
+        model.clear();
+    }
+
+    // Sets the letter in a cell and who placed it, without drawing (used by replay, which does not play on the engine)
+    public void setCell(int row, int col, int letter, int player) {
+        model.setCell(row, col, letter, player);
+    }
+
+    // Draws the letter the engine holds for a cell, in the color of the player who placed it
+    public void placeLetter(int row, int col, int player) {
+        setCell(row, col, engine.getCell(row, col), player);
+        redrawRegion(row, col, row, col);
+    }
+
+    // Empties a cell (used when a move is undone)
+    public void clearCell(int row, int col) {
+        setCell(row, col, SOSEngine.EMPTY, -1);
+        redrawRegion(row, col, row, col);
+    }
+
+    // Adds a scored line and draws it over the board
+    public void addLine(int startRow, int startCol, int endRow, int endCol, int player) {
+        strokeLine(model.addLine(startRow, startCol, endRow, endCol, player));
+    }
+
+    // Removes the most recently added line and repaints the cells it crossed
+    public void removeLastLine() {
+        int[] region = model.removeLastLine();
+        if (region != null) redrawRegion(region[0], region[1], region[2], region[3]);
+    }
+
+    // Repaints the whole board
+    public void redrawAll() {
+        redrawRegion(0, 0, size - 1, size - 1);
+    }
+
+    // Repaints the cells in a rectangle and the lines crossing it, clipped to the rectangle. The model finds
+    // those lines from the cells around the rectangle, so a one-cell repaint does not look at every line.
+    private void redrawRegion(int firstRow, int firstCol, int lastRow, int lastCol) {
+        double x = firstCol * cellSize;
+        double y = firstRow * cellSize;
+        double width = (lastCol - firstCol + 1) * cellSize;
+        double height = (lastRow - firstRow + 1) * cellSize;
+
+        gc.save();
+        gc.beginPath();
+        gc.rect(x, y, width, height);
+        gc.clip();
+
+        // Cells: background, grid and letter
+        gc.setFill(Color.WHITE);
+        gc.fillRect(x, y, width, height);
+        gc.setStroke(Color.BLACK);
+        gc.setLineWidth(1);
+        gc.setFont(Font.font(cellSize * 0.6));
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                gc.strokeRect(col * cellSize, row * cellSize, cellSize, cellSize);
+                int letter = model.getLetter(row, col);
+                if (letter == SOSEngine.EMPTY) continue;
+                gc.setFill(model.getOwner(row, col) == SOSEngine.RED ? Color.RED : Color.BLUE);
+                gc.fillText(SOSEngine.letterString(letter), (col + 0.5) * cellSize, (row + 0.5) * cellSize);
+            }
+        }
+
+        // Lines whose cells overlap the rectangle
+        for (int line : model.linesCrossing(firstRow, firstCol, lastRow, lastCol)) strokeLine(line);
+        gc.restore();
+    }
+
+    // Draws a line of the model from cell center to cell center
+    private void strokeLine(int line) {
+        gc.setStroke(model.getLinePlayer(line) == SOSEngine.BLUE ? Color.BLUE : Color.RED);
+        gc.setLineWidth(Math.max(1, cellSize / 20));
+        gc.strokeLine((model.getLineStartCol(line) + 0.5) * cellSize, (model.getLineStartRow(line) + 0.5) * cellSize,
+            (model.getLineEndCol(line) + 0.5) * cellSize, (model.getLineEndRow(line) + 0.5) * cellSize);
+    }
+}
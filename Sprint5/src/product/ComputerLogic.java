@@ -1,30 +1,72 @@
 package product;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.util.Duration;
 import product.Player.PlayerType;
 
 public class ComputerLogic {
+    private static final long MOVE_DELAY_MILLIS = 1000; // Shortest time between a turn starting and the letter of an instant strategy appearing
+
+    // Searches run here, off the JavaFX Application Thread, one at a time. A cancelled search is interrupted,
+    // and the strategies stop searching when they see it, so the next search does not wait behind it.
+    private static final ExecutorService SEARCH_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "computer-move-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private Board board;
     private GameController gameController;
     private Game game;
-    private String[][] boardState;
+    private SOSEngine engine;
     private int boardSize;
+    private long[] patternMatches; // Reused bit set for pattern searches
+    private Random random = new Random();
+    private MoveStrategy strategy = new SafeMoveStrategy(); // How the computer picks its moves
+    private final SOSEngine searchEngine; // Mirror of the game, only used on the search thread
+    private final ConcurrentLinkedQueue<int[]> mirrorUpdates = new ConcurrentLinkedQueue<>(); // Moves for the mirror, see queueMirrorUpdate
+    private Future<?> pendingSearch; // Search in flight, null if none
+    private PauseTransition pendingPause; // Delay before a found move is played, null if none
+    private int searchGeneration; // Incremented by cancelPendingMove, so results of older searches are dropped
+    private Runnable movePlayedListener; // Called after each computer move is played, null if none
 
     //Constructor to initialize computer AI logic
     public ComputerLogic(Game game, GameController gameController, Board board) {
         this.game = game;
         this.gameController = gameController;
-        this.boardState = board.getBoardState();
+        this.engine = game.getEngine();
         this.board = board;
-        this.boardSize = gameController.getSize();
+        this.boardSize = engine.getSize();
+        this.patternMatches = engine.getBoard().newCellSet();
+        this.searchEngine = new SOSEngine(boardSize, engine.getMode());
     }
     
-    // Method to handle the computer's turn by finding and making a strategic move> Also includes a brief delay of 1 second for visual effect
+    // Getter and setter for the move selection strategy
+    public MoveStrategy getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(MoveStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    // Sets a listener called on the FX thread after each computer move is played, before the next turn starts
+    public void setOnMovePlayed(Runnable movePlayedListener) {
+        this.movePlayedListener = movePlayedListener;
+    }
+
+    // Method to handle the computer's turn by finding and making a strategic move. The strategy searches a mirror of
+    // the game on a background thread; only the chosen move comes back to the FX thread. The mirror is brought up to
+    // date by replaying the moves made since the last computer turn, so a turn costs no copy of the board. Moves of
+    // strategies that answer at once are played when 1 second has passed since the turn started, for visual effect;
+    // strategies with a thinking time use it instead.
     public void manageComputerMove() {
         // Returns if game is not in progress or if replay is in progress
         if (!gameController.getGameProgress() || gameController.getReplayProgress()) return; 
@@ -33,172 +75,168 @@ public class ComputerLogic {
         if (gameController.getCurrentPlayer().getPlayerType() == PlayerType.COMPUTER) {
             // Disable board buttons
             board.setButtonsDisabled(true); 
+            cancelPendingMove(); // Only one computer move at a time
 
-            // Define an array to hold the SOS position
-            int[] position = new int[]{-1, -1}; 
-            
-            // Check each SOS search method in sequence and stop if a valid move is found
-            if (isValidPosition(position = findOpenHorizontalSOSPattern()) ||
-                isValidPosition(position = findOpenVerticalSOSPattern()) ||
-                isValidPosition(position = findOpenPrimaryDiagonalSOSPattern()) ||
-                isValidPosition(position = findOpenSecondaryDiagonalSOSPattern()) ||
-                isValidPosition(position = findRandomAvailableSpot())) {
-                
-                int row = position[0];
-                int col = position[1];
-    
-                // Create a PauseTransition for 1 second (1000 milliseconds)
-                PauseTransition pause = new PauseTransition(Duration.seconds(1));
-                
-                // Set the action to be performed after the pause
-                pause.setOnFinished(event -> {
-                    game.getGameLogic().handleButtonClick(row, col, board.getButtonAt(row, col)); // Handle the button click after the delay
-                    manageComputerMove(); // Recursive call to check for additional moves
+            // Let the strategy pick a move for the current player on the mirror of the headless engine
+            int player = gameController.getCurrentPlayerIndex();
+            engine.setCurrentPlayer(player);
+            queueMirrorUpdate();
+            MoveStrategy searchStrategy = strategy;
+            int generation = searchGeneration;
+            long start = System.currentTimeMillis();
+            long minimumDelay = searchStrategy.getThinkingTimeMillis() > 0 ? 0 : MOVE_DELAY_MILLIS;
+
+            pendingSearch = SEARCH_EXECUTOR.submit(() -> {
+                updateMirror();
+                searchEngine.setCurrentPlayer(player);
+                int move = searchStrategy.chooseMove(searchEngine);
+                long delay = Math.max(0, minimumDelay - (System.currentTimeMillis() - start));
+                Platform.runLater(() -> {
+                    if (generation == searchGeneration) playMoveAfter(move, delay);
                 });
-    
-                // Start the pause
-                pause.play();
-            }
+            });
         }
         // Enable board buttons
         else board.setButtonsDisabled(false);
     }
 
-    // Helper method to check if a position is valid
-    private boolean isValidPosition(int[] position) {
-        return position[0] != -1 && position[1] != -1;
+    // Drops the computer move being searched or waiting to be played, if any. Called when a new game starts,
+    // a player type changes or a replay begins.
+    public void cancelPendingMove() {
+        searchGeneration++;
+        if (pendingSearch != null) {
+            pendingSearch.cancel(true);
+            pendingSearch = null;
+        }
+        if (pendingPause != null) {
+            pendingPause.stop();
+            pendingPause = null;
+        }
     }
 
-    //Find valid SOS pattern (horizontal)
-    public int[] findOpenHorizontalSOSPattern() {
-        for (int i = 0; i < boardSize; i++) {
-            for (int j = 0; j <= boardSize - 3; j++) {
-                // Extract the sequence of three cells
-                String firstCell = boardState[i][j];
-                String secondCell = boardState[i][j + 1];
-                String thirdCell = boardState[i][j + 2];
-    
-                // Check for the specified patterns
-                if (firstCell.isEmpty() && secondCell.equals("O") && thirdCell.equals("S")) {
-                    gameController.selectSButton();
-                    return new int[]{i, j}; // Return position of _
-                } 
-                else if (firstCell.equals("S") && secondCell.isEmpty() && thirdCell.equals("S")) {
-                    gameController.selectOButton();
-                    return new int[]{i, j + 1}; // Return position of _
-                } 
-                else if (firstCell.equals("S") && secondCell.equals("O") && thirdCell.isEmpty()) {
-                    gameController.selectSButton();
-                    return new int[]{i, j + 2}; // Return position of _
-                }
+    // Queues the changes to the game since the last computer turn for the mirror: how many of the oldest moves
+    // are unchanged, then cell, letter and player of each newer move. Updates are queued rather than passed to
+    // one search, so the moves of a search cancelled before it started are applied by the next one.
+    private void queueMirrorUpdate() {
+        int kept = engine.takeKeptMoveCount();
+        int count = engine.getMoveCount();
+        int[] update = new int[1 + 3 * (count - kept)];
+        update[0] = kept;
+        for (int i = kept, at = 1; i < count; i++, at += 3) {
+            update[at] = engine.getMoveCell(i);
+            update[at + 1] = engine.getMoveLetter(i);
+            update[at + 2] = engine.getMovePlayer(i);
+        }
+        mirrorUpdates.add(update);
+    }
+
+    // Applies the queued updates to the mirror on the search thread, placing and scoring moves like GameLogic does
+    private void updateMirror() {
+        int[] update;
+        while ((update = mirrorUpdates.poll()) != null) {
+            while (searchEngine.getMoveCount() > update[0]) searchEngine.undoMove();
+            for (int at = 1; at < update.length; at += 3) {
+                int row = update[at] / boardSize;
+                int col = update[at] % boardSize;
+                searchEngine.setCurrentPlayer(update[at + 2]);
+                searchEngine.placeLetter(row, col, update[at + 1]);
+                searchEngine.scorePlacement(row, col, update[at + 2]);
             }
         }
-        return new int[]{-1, -1}; // Return -1, -1 if no "SOS" is found
+    }
+
+    // Helper method to play a found move on the FX thread after the remaining delay
+    private void playMoveAfter(int move, long delayMillis) {
+        pendingSearch = null;
+        if (move < 0 || !gameController.getGameProgress() || gameController.getReplayProgress()) return;
+
+        // Select the letter the strategy chose
+        if (ThreatIndex.moveLetter(move) == BitBoard.O) gameController.selectOButton();
+        else gameController.selectSButton();
+
+        int row = ThreatIndex.moveCell(move) / boardSize;
+        int col = ThreatIndex.moveCell(move) % boardSize;
+
+        // Create a PauseTransition for the rest of the delay
+        PauseTransition pause = new PauseTransition(Duration.millis(delayMillis));
+        pendingPause = pause;
+
+        // Set the action to be performed after the pause
+        pause.setOnFinished(event -> {
+            pendingPause = null;
+            game.getGameLogic().handleButtonClick(row, col, board.getButtonAt(row, col)); // Handle the button click after the delay
+            if (movePlayedListener != null) movePlayedListener.run();
+            manageComputerMove(); // Recursive call to check for additional moves
+        });
+
+        // Start the pause
+        pause.play();
+    }
+
+    //Find valid SOS pattern (horizontal)
+    public int[] findOpenHorizontalSOSPattern() {
+        return findOpenSOSPattern(BitBoard.ROW);
     }
     
     //Find valid SOS pattern (Vertical)
     public int[] findOpenVerticalSOSPattern() {
-        for (int j = 0; j < boardSize; j++) {
-            for (int i = 0; i <= boardSize - 3; i++) {
-                // Extract the sequence of three cells in a column
-                String firstCell = boardState[i][j];
-                String secondCell = boardState[i + 1][j];
-                String thirdCell = boardState[i + 2][j];
-    
-                // Check for the specified patterns
-                if (firstCell.isEmpty() && secondCell.equals("O") && thirdCell.equals("S")) {
-                    gameController.selectSButton();
-                    return new int[]{i, j}; // Return position of _
-                } 
-                else if (firstCell.equals("S") && secondCell.isEmpty() && thirdCell.equals("S")) {
-                    gameController.selectOButton();
-                    return new int[]{i + 1, j}; // Return position of _
-                } 
-                else if (firstCell.equals("S") && secondCell.equals("O") && thirdCell.isEmpty()) {
-                    gameController.selectSButton();
-                    return new int[]{i + 2, j}; // Return position of _
-                }
-            }
-        }
-        return new int[]{-1, -1}; // Return -1, -1 if no "SOS" is found
+        return findOpenSOSPattern(BitBoard.COLUMN);
     }
     
     //Find valid SOS pattern (Diagonal. Topleft to bottomRight)
     public int[] findOpenPrimaryDiagonalSOSPattern() {
-        for (int i = 0; i <= boardSize - 3; i++) {
-            for (int j = 0; j <= boardSize - 3; j++) {
-                // Extract the sequence of three cells in the primary diagonal
-                String firstCell = boardState[i][j];
-                String secondCell = boardState[i + 1][j + 1];
-                String thirdCell = boardState[i + 2][j + 2];
-    
-                // Check for the specified patterns
-                if (firstCell.isEmpty() && secondCell.equals("O") && thirdCell.equals("S")) {
-                    gameController.selectSButton();
-                    return new int[]{i, j}; // Return position of _
-                } 
-                else if (firstCell.equals("S") && secondCell.isEmpty() && thirdCell.equals("S")) {
-                    gameController.selectOButton();
-                    return new int[]{i + 1, j + 1}; // Return position of _
-                } 
-                else if (firstCell.equals("S") && secondCell.equals("O") && thirdCell.isEmpty()) {
-                    gameController.selectSButton();
-                    return new int[]{i + 2, j + 2}; // Return position of _
-                }
-            }
-        }
-        return new int[]{-1, -1}; // Return -1, -1 if no "SOS" is found
+        return findOpenSOSPattern(BitBoard.PRIMARY_DIAGONAL);
     }
 
     //Find valid SOS pattern (Diagonal. BottomLeft to topRight)
     public int[] findOpenSecondaryDiagonalSOSPattern() {
-        for (int i = 0; i <= boardSize - 3; i++) {
-            for (int j = 2; j < boardSize; j++) { // Start from column 2 to ensure diagonal stays within bounds
-                // Extract the sequence of three cells in the secondary diagonal
-                String firstCell = boardState[i][j];
-                String secondCell = boardState[i + 1][j - 1];
-                String thirdCell = boardState[i + 2][j - 2];
-    
-                // Check for the specified patterns
-                if (firstCell.isEmpty() && secondCell.equals("O") && thirdCell.equals("S")) {
-                    gameController.selectSButton();
-                    return new int[]{i, j}; // Return position of _
-                } 
-                else if (firstCell.equals("S") && secondCell.isEmpty() && thirdCell.equals("S")) {
-                    gameController.selectOButton();
-                    return new int[]{i + 1, j - 1}; // Return position of _
-                } 
-                else if (firstCell.equals("S") && secondCell.equals("O") && thirdCell.isEmpty()) {
-                    gameController.selectSButton();
-                    return new int[]{i + 2, j - 2}; // Return position of _
-                }
+        return findOpenSOSPattern(BitBoard.SECONDARY_DIAGONAL);
+    }
+
+    // Finds the first window in a direction that one letter turns into SOS (_OS, S_S or SO_), using
+    // word-parallel pattern masks on the bitboard. Selects the letter to play and returns the position of _.
+    private int[] findOpenSOSPattern(int direction) {
+        BitBoard bitBoard = engine.getBoard();
+        int bestStart = -1;
+        int bestGap = -1;
+
+        for (int gap = 0; gap < 3; gap++) {
+            // Pattern with the empty cell at offset gap, e.g. gap 1 is S_S
+            bitBoard.findPattern(direction,
+                gap == 0 ? BitBoard.EMPTY : BitBoard.S,
+                gap == 1 ? BitBoard.EMPTY : BitBoard.O,
+                gap == 2 ? BitBoard.EMPTY : BitBoard.S,
+                patternMatches);
+
+            int start = BitBoard.nextSetBit(patternMatches, 0);
+            if (start >= 0 && (bestStart < 0 || start < bestStart)) {
+                bestStart = start;
+                bestGap = gap;
             }
         }
-        return new int[]{-1, -1}; // Return -1, -1 if no "SOS" is found
+
+        if (bestStart < 0) return new int[]{-1, -1}; // Return -1, -1 if no "SOS" is found
+
+        // The middle cell needs an O, either end needs an S
+        if (bestGap == 1) gameController.selectOButton();
+        else gameController.selectSButton();
+
+        int cell = bestStart + bestGap * bitBoard.step(direction);
+        return new int[]{cell / boardSize, cell % boardSize}; // Return position of _
     }
     
     //Find available random spot
     public int[] findRandomAvailableSpot() {
-        List<int[]> availableSpots = new ArrayList<>();
-        Random random = new Random();
-    
-        // Collect all available spots
-        for (int row = 0; row < boardSize; row++) {
-            for (int col = 0; col < boardSize; col++) {
-                if (boardState[row][col].isEmpty()) availableSpots.add(new int[]{row, col});
-            }
-        }
+        // Pick straight from the board's free-cell set
+        int cell = engine.getBoard().getFreeCells().pick(random);
     
         // If no open spots are available, return [-1, -1]
-        if (availableSpots.isEmpty()) return new int[]{-1, -1};
-        
+        if (cell < 0) return new int[]{-1, -1};
     
         // Randomly choose between the two buttons
         if (random.nextInt(2) == 0) gameController.selectSButton();
         else gameController.selectOButton();
     
-        // Select a random spot from the list of available spots
-        int randomPosition = random.nextInt(availableSpots.size());
-        return availableSpots.get(randomPosition);
+        return new int[]{cell / boardSize, cell % boardSize};
     }
-}
\ No newline at end of file
+}
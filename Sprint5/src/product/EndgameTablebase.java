@@ -0,0 +1,170 @@
+package product;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+// Exact values and best moves of solved positions for one board size and mode, keyed by canonical position hash
+// (BitBoard.getCanonicalHash), so one entry covers all symmetric versions of a position.
+// Open addressing over parallel arrays, so a lookup is O(1) and an entry costs 12 bytes in memory.
+//
+// File layout (big-endian):
+//   int   magic "SOST"
+//   byte  format version
+//   byte  board size
+//   byte  mode: 0 Simple, 1 General
+//   int   entry count
+//   entries of 10 bytes: long key, byte value, byte move
+public class EndgameTablebase {
+
+    public static final int MAGIC = 0x534F5354; // "SOST"
+    public static final int VERSION = 2; // Version 1 files were keyed by plain board hash
+    public static final int MAX_SIZE = 5; // Values and moves of boards up to 5x5 fit in a byte
+    public static final int MISSING = 0; // Returned by lookup for an unsolved position
+
+    private static final int FOUND = 1 << 31; // Set in every stored entry, so MISSING never matches one
+
+    private final int size;
+    private final SOSEngine.Mode mode;
+    private long[] keys = new long[1 << 10];
+    private int[] entries = new int[1 << 10]; // FOUND | value << 8 | move, MISSING for a free slot
+    private int count;
+    private boolean modified; // Entries added since the table was loaded or saved
+
+    // Constructor creates an empty table
+    public EndgameTablebase(int size, SOSEngine.Mode mode) {
+        if (size > MAX_SIZE) throw new IllegalArgumentException("Tablebases are limited to " + MAX_SIZE + "x" + MAX_SIZE + " boards: " + size);
+        this.size = size;
+        this.mode = mode;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public SOSEngine.Mode getMode() {
+        return mode;
+    }
+
+    // Number of solved positions
+    public int size() {
+        return count;
+    }
+
+    public boolean isModified() {
+        return modified;
+    }
+
+    // Returns the entry of a position, or MISSING
+    public int lookup(long key) {
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); entries[slot] != MISSING; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) return entries[slot];
+        }
+        return MISSING;
+    }
+
+    // Value of a position for the side to move: 1/0/-1 for win/draw/loss in Simple mode, the score margin
+    // still to come in General mode
+    public static int value(int entry) {
+        return (byte) (entry >> 8);
+    }
+
+    // Best move of a position as a ThreatIndex move key
+    public static int move(int entry) {
+        return entry & 0xFF;
+    }
+
+    // Packs a value and move the way lookup returns them
+    public static int entry(int value, int move) {
+        return FOUND | (value & 0xFF) << 8 | move;
+    }
+
+    // Stores a solved position
+    public void store(long key, int value, int move) {
+        if ((count + 1) * 2 > keys.length) grow(); // Load factor at most 1/2
+
+        int entry = entry(value, move);
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while (entries[slot] != MISSING) {
+            if (keys[slot] == key) {
+                entries[slot] = entry;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        entries[slot] = entry;
+        count++;
+        modified = true;
+    }
+
+    // Writes the table to a file, replacing it atomically
+    public void save(Path path) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(size);
+            out.writeByte(mode == SOSEngine.Mode.GENERAL ? 1 : 0);
+            out.writeInt(count);
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (entries[slot] == MISSING) continue;
+                out.writeLong(keys[slot]);
+                out.writeByte(value(entries[slot]));
+                out.writeByte(move(entries[slot]));
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        modified = false;
+    }
+
+    // Reads a table written by save. Throws an IOException if the file is damaged or holds another size or mode.
+    public static EndgameTablebase load(Path path, int size, SOSEngine.Mode mode) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a tablebase file: " + path);
+            if (in.readUnsignedByte() != VERSION) throw new IOException("Unsupported tablebase version: " + path);
+            if (in.readUnsignedByte() != size || in.readUnsignedByte() != (mode == SOSEngine.Mode.GENERAL ? 1 : 0)) {
+                throw new IOException("Tablebase " + path + " is not for " + size + "x" + size + " " + mode);
+            }
+
+            EndgameTablebase table = new EndgameTablebase(size, mode);
+            int entryCount = in.readInt();
+            for (int i = 0; i < entryCount; i++) {
+                long key = in.readLong();
+                int value = in.readByte();
+                table.store(key, value, in.readUnsignedByte());
+            }
+            table.modified = false;
+            return table;
+        }
+    }
+
+    // Doubles the table and reinserts every entry
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldEntries = entries;
+        keys = new long[oldKeys.length * 2];
+        entries = new int[oldEntries.length * 2];
+
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldEntries[i] == MISSING) continue;
+            int slot = slot(oldKeys[i], mask);
+            while (entries[slot] != MISSING) slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[i];
+            entries[slot] = oldEntries[i];
+        }
+    }
+
+    // Home slot of a key: both halves folded together
+    private static int slot(long key, int mask) {
+        return (int) (key >>> 32 ^ key) & mask;
+    }
+}
@@ -0,0 +1,70 @@
+package product;
+
+import java.util.Random;
+
+// Set of empty cells kept as a dense array plus a cell-to-position map,
+// so add, remove, size and random pick are all O(1) and allocation-free.
+public class FreeCellSet {
+
+    private final int[] cells; // Free cells in positions 0 .. size - 1
+    private final int[] positions; // Position of each cell in cells, or -1 if the cell is occupied
+    private int size; // Number of free cells
+
+    // Constructor initializes the set with every cell free
+    public FreeCellSet(int cellCount) {
+        this.cells = new int[cellCount];
+        this.positions = new int[cellCount];
+        fill();
+    }
+
+    // Marks every cell free again
+    public void fill() {
+        for (int cell = 0; cell < cells.length; cell++) {
+            cells[cell] = cell;
+            positions[cell] = cell;
+        }
+        size = cells.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int cell) {
+        return positions[cell] >= 0;
+    }
+
+    // Returns the free cell stored at a position (0 .. size - 1)
+    public int get(int position) {
+        return cells[position];
+    }
+
+    // Removes a cell by swapping the last free cell into its position
+    public void remove(int cell) {
+        int position = positions[cell];
+        if (position < 0) return;
+
+        int last = cells[--size];
+        cells[position] = last;
+        positions[last] = position;
+        cells[size] = cell;
+        positions[cell] = -1;
+    }
+
+    // Adds a cell back to the end of the set
+    public void add(int cell) {
+        if (positions[cell] >= 0) return;
+
+        cells[size] = cell;
+        positions[cell] = size++;
+    }
+
+    // Returns a uniformly random free cell, or -1 if none are free
+    public int pick(Random random) {
+        return size == 0 ? -1 : cells[random.nextInt(size)];
+    }
+}
@@ -9,10 +9,12 @@ public abstract class Game {
     protected GameController gameController;
     protected ComputerLogic computerLogic;
     protected GameLogic gameLogic; // Game logic handler
+    protected SOSEngine engine; // Headless rules engine holding the board state
 
-    // constructor that initializes board, computer logic, and game logic
-    public Game(GameController gameController, GridPane boardVisual) {
+    // constructor that initializes engine, board, computer logic, and game logic
+    public Game(GameController gameController, GridPane boardVisual, SOSEngine.Mode mode) {
         this.gameController = gameController;
+        this.engine = new SOSEngine(gameController.getSize(), mode);
         this.board = new Board(this, gameController, boardVisual);
         this.computerLogic = new ComputerLogic(this, gameController, board);
         this.gameLogic = new GameLogic(this, gameController, board); // Initialize game logic
@@ -20,8 +22,45 @@ public abstract class Game {
         board.createBoard(); // Initialize board state and visuals
     }
 
-    // Defines the game mode logic, to be implemented by subclasses
-    public abstract void handleGameModeLogic(boolean didPlayerScore);
+    // Applies the game mode rules after a move and updates the display accordingly
+    public void handleGameModeLogic(boolean didPlayerScore) {
+        gameController.refreshScoreBoard(); // Update score display
+
+        SOSEngine.Outcome outcome = SOSEngine.resolveTurn(
+            engine.getMode(),
+            gameController.getCurrentPlayerIndex(),
+            didPlayerScore,
+            gameLogic.isBoardFull(),
+            gameController.getBluePlayer().getScore(),
+            gameController.getRedPlayer().getScore()
+        );
+
+        switch (outcome) {
+            case BLUE_WINS:
+            case RED_WINS:
+                // Display win message and disable board buttons
+                Player winner = outcome == SOSEngine.Outcome.BLUE_WINS ? gameController.getBluePlayer() : gameController.getRedPlayer();
+                gameController.infoDisplay.setText("Game Over! \n" + winner.getPlayerColor() + " Player wins!");
+                board.setButtonsDisabled(true);
+                endGame(); // Call endGame() when a player wins
+                break;
+            case DRAW:
+                // Display draw message when the board is full and nobody won
+                gameController.infoDisplay.setText("Game Over! \nIt's a draw");
+                board.setButtonsDisabled(true);
+                endGame(); // Call endGame() when theres a draw
+                break;
+            case SWITCH_PLAYER:
+                // Switch to the next player and display the current turn
+                gameController.switchPlayer();
+                gameController.infoDisplay.setText("Current Turn: " + gameController.getCurrentPlayer().getPlayerColor() + " Player");
+                break;
+            case EXTRA_TURN:
+                // Notify player of scored point and allow additional move
+                gameController.infoDisplay.setText("Current Turn: " + gameController.getCurrentPlayer().getPlayerColor() + " Player\nYou scored, make your next move!");
+                break;
+        }
+    }
 
     // Getter for game logic
     public GameLogic getGameLogic() {
@@ -37,9 +76,15 @@ public abstract class Game {
     public Board getBoard() {
         return board;
     }
+
+    // Getter for the headless rules engine
+    public SOSEngine getEngine() {
+        return engine;
+    }
     
     // Method to endGame
     public void endGame() {
         gameController.setGameProgress(false);
+        if (!gameController.getReplayProgress()) gameController.getGameRecorder().archiveGame(); // Keep every finished game
     }
-}
\ No newline at end of file
+}
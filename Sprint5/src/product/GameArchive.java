@@ -0,0 +1,186 @@
+package product;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Append-only archive of many games in the binary record format, stored back to back in a data file.
+// A separate index file holds one entry per game (long offset, int length), so game N is found with one
+// index lookup and read straight from memory-mapped segments of the data file, without parsing the games
+// before it. Files larger than 2 GB are mapped as several segments.
+//
+// Data is appended and forced to disk before its index entry is written, so after a crash the index only names
+// complete games; any unindexed tail of the data file (and any partial index entry) is cut off when the archive
+// is opened.
+public class GameArchive implements Closeable {
+
+    public static final int INDEX_ENTRY_BYTES = 12;
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 30; // 1 GB per mapping
+
+    private final FileChannel data;
+    private final FileChannel index;
+    private final MappedSegments dataSegments;
+    private final MappedSegments indexSegments;
+    private long dataSize; // Bytes of indexed games in the data file
+    private int gameCount;
+
+    // Opens (or creates) the archive stored at dataPath, with its index at the same path plus ".idx"
+    public static GameArchive open(Path dataPath) throws IOException {
+        return new GameArchive(dataPath, dataPath.resolveSibling(dataPath.getFileName() + ".idx"));
+    }
+
+    // Opens (or creates) an archive with the default segment size
+    public GameArchive(Path dataPath, Path indexPath) throws IOException {
+        this(dataPath, indexPath, DEFAULT_SEGMENT_SIZE);
+    }
+
+    // Opens (or creates) an archive mapping the files in segments of at most segmentSize bytes
+    public GameArchive(Path dataPath, Path indexPath, int segmentSize) throws IOException {
+        this.data = FileChannel.open(dataPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.index = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.dataSegments = new MappedSegments(data, segmentSize);
+        this.indexSegments = new MappedSegments(index, segmentSize);
+
+        // Drop a partial index entry and data that no index entry covers
+        long entries = index.size() / INDEX_ENTRY_BYTES;
+        if (entries > Integer.MAX_VALUE) throw new IOException("Archive index is too large");
+        gameCount = (int) entries;
+        index.truncate(entries * INDEX_ENTRY_BYTES);
+
+        dataSize = gameCount == 0 ? 0 : getOffset(gameCount - 1) + getLength(gameCount - 1);
+        if (data.size() < dataSize) throw new IOException("Archive data is shorter than its index");
+        data.truncate(dataSize);
+    }
+
+    // Number of games in the archive
+    public int size() {
+        return gameCount;
+    }
+
+    // Appends a game and returns its number
+    public int append(GameRecord record) throws IOException {
+        writeGame(gameCount, record);
+        return gameCount++;
+    }
+
+    // Replaces the last game (a finished game that was reopened and finished again) and returns its number.
+    // The new bytes go after the old ones, so a crash leaves either the old or the new game in the index;
+    // the old bytes stay behind as unused space.
+    public int replaceLast(GameRecord record) throws IOException {
+        if (gameCount == 0) throw new IndexOutOfBoundsException("No game to replace in an empty archive");
+        writeGame(gameCount - 1, record);
+        return gameCount - 1;
+    }
+
+    // Reads game number n
+    public GameRecord get(int n) throws IOException {
+        byte[] bytes = new byte[getLength(n)];
+        dataSegments.read(getOffset(n), bytes, dataSize);
+        return new BinaryRecordReader(new ByteArrayInputStream(bytes)).read();
+    }
+
+    // Position and size of game n in the data file
+    public long getOffset(int n) throws IOException {
+        return ByteBuffer.wrap(readIndexEntry(n)).getLong(0);
+    }
+
+    public int getLength(int n) throws IOException {
+        return ByteBuffer.wrap(readIndexEntry(n)).getInt(8);
+    }
+
+    // Pushes appended games to the storage device
+    public void force() throws IOException {
+        data.force(false);
+        index.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        dataSegments.release();
+        indexSegments.release();
+        data.close();
+        index.close();
+    }
+
+    private byte[] readIndexEntry(int n) throws IOException {
+        if (n < 0 || n >= gameCount) throw new IndexOutOfBoundsException("No game " + n + " in archive of " + gameCount);
+        byte[] entry = new byte[INDEX_ENTRY_BYTES];
+        indexSegments.read((long) n * INDEX_ENTRY_BYTES, entry, (long) gameCount * INDEX_ENTRY_BYTES);
+        return entry;
+    }
+
+    // Writes a game at the end of the data file and points index entry n at it. The data is forced to disk
+    // before the index entry is written, so the index never names bytes that did not reach the disk.
+    private void writeGame(int n, GameRecord record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(BinaryRecordWriter.encodedLength(record));
+        try (BinaryRecordWriter writer = new BinaryRecordWriter(bytes)) {
+            writer.write(record);
+        }
+        writeFully(data, ByteBuffer.wrap(bytes.toByteArray()), dataSize);
+        data.force(false);
+
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_BYTES);
+        entry.putLong(dataSize).putInt(bytes.size()).flip();
+        writeFully(index, entry, (long) n * INDEX_ENTRY_BYTES);
+        dataSize += bytes.size();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) position += channel.write(buffer, position);
+    }
+
+    // Read-only mappings of a growing file, one per segment. A segment is remapped when the file has grown
+    // past the end of its current mapping.
+    private static class MappedSegments {
+        private final FileChannel channel;
+        private final int segmentSize;
+        private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+        MappedSegments(FileChannel channel, int segmentSize) {
+            this.channel = channel;
+            this.segmentSize = segmentSize;
+        }
+
+        // Copies dst.length bytes starting at position; fileSize is the readable length of the file
+        void read(long position, byte[] dst, long fileSize) throws IOException {
+            int done = 0;
+            while (done < dst.length) {
+                long at = position + done;
+                int segment = (int) (at / segmentSize);
+                int offset = (int) (at % segmentSize);
+                int count = Math.min(dst.length - done, segmentSize - offset);
+
+                MappedByteBuffer buffer = segment(segment, offset + count, fileSize);
+                buffer.get(offset, dst, done, count);
+                done += count;
+            }
+        }
+
+        // Returns a mapping of segment k that covers at least its first needed bytes
+        private MappedByteBuffer segment(int k, int needed, long fileSize) throws IOException {
+            while (segments.size() <= k) segments.add(null);
+
+            MappedByteBuffer buffer = segments.get(k);
+            if (buffer == null || buffer.capacity() < needed) {
+                long start = (long) k * segmentSize;
+                long length = Math.min(segmentSize, fileSize - start);
+                if (length < needed) throw new IOException("Archive read past the end of the file");
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+                segments.set(k, buffer);
+            }
+            return buffer;
+        }
+
+        void release() {
+            segments.clear(); // Mappings are unmapped once garbage collected
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package product;
 
-import java.util.List;
+import java.io.IOException;
+import java.nio.file.Paths;
 
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -16,6 +17,10 @@ import product.Player.PlayerType;
 
 public class GameController {
 
+    public static final int MIN_BOARD_SIZE = SOSEngine.MIN_BOARD_SIZE;
+    public static final int DEFAULT_MAX_BOARD_SIZE = 10; // Largest board offered unless configured otherwise
+    public static final int MAX_SUPPORTED_BOARD_SIZE = SOSEngine.MAX_BOARD_SIZE; // Largest limit that can be configured
+
     // FXML UI Components
     @FXML
     public RadioButton blueSButton, blueOButton, redSButton, redOButton, simpleModeButton, generalModeButton;
@@ -32,6 +37,7 @@ public class GameController {
 
     // Game state variables
     private int boardSize;
+    private int maxBoardSize; // Largest board size accepted by setBoardSize and createValidGame
     private Game gameMode;
     private GameRecorder gameRecorder;
     private Player bluePlayer;
@@ -39,6 +45,11 @@ public class GameController {
     private Player currentPlayer;
     private boolean isGameInProgress; 
     private boolean isReplayInProgress; 
+    private MoveStrategy computerStrategy; // Strategy given to the computer player of each new game
+    private GameRecord replayRecord; // Game being replayed (the moves read so far), null outside replay
+    private TextRecordReader replayReader; // Moves of the replayed game not read yet, null once all are read
+    private ReplayNavigator replayNavigator; // Jumps between the moves of the replayed game
+    private Timeline replayTimeline; // Plays the replay forward one move per second
 
     // Constructor to initialize default players and the starting player
     public GameController() {
@@ -49,6 +60,8 @@ public class GameController {
         this.isGameInProgress = false; // Flag to track if the game is in progress
         this.isReplayInProgress = false;
         this.boardSize = 3;
+        setMaxBoardSize(Integer.getInteger("sos.maxBoardSize", DEFAULT_MAX_BOARD_SIZE)); // e.g. -Dsos.maxBoardSize=256 for stress games
+        this.computerStrategy = new SafeMoveStrategy();
         this.gameMode = null; //null
     }
 
@@ -61,6 +74,18 @@ public class GameController {
         return boardSize; 
     }
 
+    public int getMaxBoardSize() {
+        return maxBoardSize;
+    }
+
+    // Sets the largest board size a game can be started with. Boards of Board.CANVAS_MIN_SIZE and up are drawn on a canvas.
+    public void setMaxBoardSize(int maxBoardSize) {
+        if (maxBoardSize < MIN_BOARD_SIZE || maxBoardSize > MAX_SUPPORTED_BOARD_SIZE) {
+            throw new IllegalArgumentException("Board size limit must be between " + MIN_BOARD_SIZE + " and " + MAX_SUPPORTED_BOARD_SIZE + ": " + maxBoardSize);
+        }
+        this.maxBoardSize = maxBoardSize;
+    }
+
     public Player getCurrentPlayer() { 
         return currentPlayer; 
     }
@@ -73,6 +98,16 @@ public class GameController {
         return redPlayer; 
     }
 
+    // Returns the engine index (SOSEngine.BLUE or SOSEngine.RED) of the current player
+    public int getCurrentPlayerIndex() {
+        return (currentPlayer == bluePlayer) ? SOSEngine.BLUE : SOSEngine.RED;
+    }
+
+    // Returns the player for an engine index
+    public Player getPlayer(int playerIndex) {
+        return (playerIndex == SOSEngine.BLUE) ? bluePlayer : redPlayer;
+    }
+
     public boolean getGameProgress() { 
         return isGameInProgress; 
     }
@@ -81,11 +116,40 @@ public class GameController {
         return isReplayInProgress; 
     }
 
+    // Saves the positions solved by the computer strategy and closes the recorder with its writer thread and
+    // journal (called when the application stops)
+    public void shutdown() {
+        gameRecorder.close();
+        if (computerStrategy instanceof TablebaseStrategy) {
+            try {
+                ((TablebaseStrategy) computerStrategy).save();
+            } catch (IOException e) {
+                System.err.println("Error saving tablebase: " + e.getMessage());
+            }
+        }
+    }
+
+    // Plays endgames on small boards perfectly, keeping the solved positions in a directory (read at the
+    // first game of each size and mode, written by shutdown). Earlier moves are left to SafeMoveStrategy.
+    public void enableTablebase(String directory) {
+        setComputerStrategy(new TablebaseStrategy(Paths.get(directory), TablebaseStrategy.DEFAULT_SOLVE_FREE_CELLS, new SafeMoveStrategy()));
+    }
+
+    // Sets the strategy used by computer players in games started from now on
+    public void setComputerStrategy(MoveStrategy computerStrategy) {
+        this.computerStrategy = computerStrategy;
+    }
+
     // Switch Player Method
     public void switchPlayer() {
         currentPlayer = (currentPlayer == bluePlayer) ? redPlayer : bluePlayer;
     }
 
+    // Sets the current player (used when a move is undone)
+    public void setCurrentPlayer(Player player) {
+        currentPlayer = player;
+    }
+
     // Select S/O Button Methods depending current Player turn
     public void selectSButton() {
         if (getCurrentPlayer() == getBluePlayer()) {
@@ -166,6 +230,7 @@ public class GameController {
                 sButton.setDisable(true);
                 oButton.setDisable(true);
                 player.setPlayerComputer();
+                cancelComputerMove(); // A search started for the old player types is stale
                 if (gameMode != null && getCurrentPlayer().getPlayerColor() == player.getPlayerColor()) {
                     gameMode.computerLogic.manageComputerMove();
                 }
@@ -177,36 +242,48 @@ public class GameController {
                 sButton.setDisable(false);
                 oButton.setDisable(false);
                 player.setPlayerHuman();
+                cancelComputerMove(); // The human now moves for this player
             }
         });
     }
 
+    // Drops the computer move being searched or waiting to be played in the current game, if any
+    private void cancelComputerMove() {
+        if (gameMode != null) gameMode.getComputerLogic().cancelPendingMove();
+    }
+
     // Board Size Validation
     public void setBoardSize(TextField boardSizeInput) {
         try {
             boardSize = Integer.parseInt(boardSizeInput.getText());
-            if (boardSize >= 3 && boardSize <= 10) {
+            if (isValidBoardSize(boardSize)) {
                 infoDisplay.setText("Valid Board Size"); // Clear any previous error message
             } else {
-                infoDisplay.setText("Please enter a valid number between 3 and 10.");
+                infoDisplay.setText("Please enter a valid number between " + MIN_BOARD_SIZE + " and " + maxBoardSize + ".");
             }
         } catch (NumberFormatException e) {
             infoDisplay.setText("Please enter a valid number.");
         }
     }
 
+    // Checks a board size against the configured limit
+    private boolean isValidBoardSize(int size) {
+        return size >= MIN_BOARD_SIZE && size <= maxBoardSize;
+    }
+
     // Creates Valid Game by selected Game Mode and board size
     private boolean createValidGame() {
-        if (boardSize >= 3 && boardSize <= 10) {
+        if (isValidBoardSize(boardSize)) {
             if (simpleModeButton.isSelected()) {
                 gameMode = new SimpleGame(this, boardVisual);
-                return true;
             }
             else if (generalModeButton.isSelected()) {
                 gameMode = new GeneralGame(this, boardVisual);
-                return true;
             }
-            return false;
+            else return false;
+
+            gameMode.getComputerLogic().setStrategy(computerStrategy);
+            return true;
         }
         return false;
     }
@@ -214,7 +291,11 @@ public class GameController {
     // Start Game Method
     @FXML
     public void startGame(ActionEvent event) {
+        cancelComputerMove(); // Moves of the previous game must not land on the new one
         setGameProgress(true); // Set game progress to true
+        closeReplayReader(); // Leave any finished replay
+        replayRecord = null;
+        replayNavigator = null;
 
         // Check if a valid game is created
         if (createValidGame()) {
@@ -248,9 +329,38 @@ public class GameController {
         }
     }
 
+    // Undo Method: takes back moves until a human player is to move again
+    @FXML
+    public void undoMove(ActionEvent event) {
+        // Nothing to undo without a game, during a replay, while the computer is thinking, or without a human player
+        if (gameMode == null || isReplayInProgress || replayNavigator != null) return;
+        if (isGameInProgress && currentPlayer.getPlayerType() == PlayerType.COMPUTER) return;
+        if (bluePlayer.getPlayerType() == PlayerType.COMPUTER && redPlayer.getPlayerType() == PlayerType.COMPUTER) return;
+
+        boolean undone = false;
+        while (gameMode.getGameLogic().undoLastMove()) {
+            undone = true;
+            if (currentPlayer.getPlayerType() == PlayerType.HUMAN) break;
+        }
+        if (!undone) return;
+
+        // An undone final move reopens the game, which is journaled again and archived again when it ends
+        if (!isGameInProgress) {
+            setGameProgress(true);
+            gameRecorder.reopenGame();
+        }
+
+        refreshScoreBoard();
+        infoDisplay.setText("Current Turn: " + currentPlayer.getPlayerColor() + " Player\nMove undone.");
+
+        // Enables the board for a human, or lets the computer move if everything was undone
+        gameMode.getComputerLogic().manageComputerMove();
+    }
+
     // Replay Game Method
     @FXML
     public void replayGame(ActionEvent event) {
+        cancelComputerMove(); // The replayed game takes over the board
         // Set Replay Progress to true
         setReplayProgress(true);
 
@@ -260,11 +370,20 @@ public class GameController {
         redSButton.setDisable(true);
         redOButton.setDisable(true);
 
-        // Loads game log from text file
-        List<String> gameLog = gameRecorder.loadFromFile();
+        // Streams the recorded game from the text file: the replay starts once the metadata is read,
+        // and each move is read when the replay reaches it
+        closeReplayReader();
+        try {
+            replayReader = gameRecorder.openRecord();
+        } catch (IOException e) {
+            infoDisplay.setText("Replay failed: " + e.getMessage());
+            finishReplay();
+            return;
+        }
+        replayRecord = new GameRecord(replayReader.getSize(), replayReader.getMode(), replayReader.getBlueType(), replayReader.getRedType(), 0L);
 
-        // Set up game configuration from the recorded moves
-        setUpGameConfiguration(gameLog);
+        // Set up game configuration from the recorded game
+        setUpGameConfiguration(replayRecord);
 
         if (createValidGame()) {
             gameMode.getBoard().setButtonsDisabled(true);
@@ -277,87 +396,139 @@ public class GameController {
             redPlayer.resetScore();
             refreshScoreBoard();
 
+            // Moves are checked and snapshots saved as they are read
+            replayNavigator = new ReplayNavigator(replayRecord); // Navigates a private engine, not the game's
+            showReplayPosition();
+
             // Handle the replay with a Timeline
-            replayMovesWithTimeline(gameLog);
+            replayMovesWithTimeline();
+        } else {
+            closeReplayReader();
         }
     }
 
+    // Step Back / Step Forward Methods: stop the running replay and move one move through the replayed game
+    @FXML
+    public void stepBackReplay(ActionEvent event) {
+        seekReplay(replayNavigator == null ? 0 : replayNavigator.getPosition() - 1);
+    }
+
+    @FXML
+    public void stepForwardReplay(ActionEvent event) {
+        seekReplay(replayNavigator == null ? 0 : replayNavigator.getPosition() + 1);
+    }
+
+    // Shows the replayed game after the given number of moves
+    public void seekReplay(int moveCount) {
+        if (replayNavigator == null) return;
+        if (replayTimeline != null && isReplayInProgress) {
+            replayTimeline.stop();
+            finishReplay();
+        }
+        String problem = readReplayMoves(moveCount);
+        replayNavigator.seek(moveCount);
+        showReplayPosition();
+        if (problem != null) infoDisplay.setText("Replay failed: " + problem);
+    }
+
+    // Reads recorded moves until the replayed game has moveCount of them or the record ends.
+    // Returns what went wrong if a move cannot be read or is not legal, or null.
+    private String readReplayMoves(int moveCount) {
+        try {
+            while (replayReader != null && replayRecord.getMoveCount() < moveCount) {
+                if (!replayReader.next()) {
+                    closeReplayReader(); // Every move is read
+                    break;
+                }
+                replayNavigator.addMove(replayReader.getPlayer(), replayReader.getRow(), replayReader.getCol(), replayReader.getLetter());
+            }
+            return null;
+        } catch (IOException | IllegalArgumentException e) {
+            closeReplayReader(); // The replay ends at the last good move
+            return e.getMessage();
+        }
+    }
+
+    private void closeReplayReader() {
+        if (replayReader == null) return;
+        try {
+            replayReader.close();
+        } catch (IOException e) {
+            System.err.println("Error closing game record: " + e.getMessage());
+        }
+        replayReader = null;
+    }
+
+    // Updates board, scores, turn and info text from the replay position
+    private void showReplayPosition() {
+        SOSEngine engine = replayNavigator.getEngine();
+        gameMode.getBoard().showPosition(replayRecord, replayNavigator.getPosition(), engine);
+
+        bluePlayer.setScore(engine.getScore(SOSEngine.BLUE));
+        redPlayer.setScore(engine.getScore(SOSEngine.RED));
+        refreshScoreBoard();
+        currentPlayer = getPlayer(engine.getCurrentPlayer());
+
+        String info = "Replay: move " + replayNavigator.getPosition();
+        if (replayReader == null) info += " of " + replayNavigator.getMoveCount(); // Known once every move is read
+        if (engine.getResult() == SOSEngine.Outcome.DRAW) info += "\nGame Over! It's a draw";
+        else if (engine.isGameOver()) info += "\nGame Over! " + getPlayer(engine.getResult() == SOSEngine.Outcome.BLUE_WINS ? SOSEngine.BLUE : SOSEngine.RED).getPlayerColor() + " Player wins!";
+        infoDisplay.setText(info);
+    }
+
     // Method to handle setting up game configuration based on recorded game Mode, players Type, and boardsize
-    private void setUpGameConfiguration(List<String> recordedMoves) {
+    private void setUpGameConfiguration(GameRecord record) {
         // Set board size
-        String[] boardSizeRecorded = recordedMoves.get(0).split(",");
-        boardSizeInput.setText(boardSizeRecorded[1]);
+        boardSizeInput.setText(Integer.toString(record.getSize()));
         setBoardSize(boardSizeInput);
         
         // Set game mode
-        String[] gameModeRecorded = recordedMoves.get(1).split(",");
-        if ("Simple".equals(gameModeRecorded[1])) {
+        if (record.getMode() == SOSEngine.Mode.SIMPLE) {
             simpleModeButton.setSelected(true);
         } else {
             generalModeButton.setSelected(true);
         }
 
         // Set Player 1 type
-        String[] blueTypeRecorded = recordedMoves.get(2).split(",");
-        if ("HUMAN".equals(blueTypeRecorded[1])) {
+        if (record.getBlueType() == PlayerType.HUMAN) {
             blueHumanButton.setSelected(true);
         } else {
             blueComputerButton.setSelected(true);
         }
 
         // Set Player 2 type
-        String[] redTypeRecorded = recordedMoves.get(3).split(",");
-        if ("HUMAN".equals(redTypeRecorded[1])) {
+        if (record.getRedType() == PlayerType.HUMAN) {
             redHumanButton.setSelected(true);
         } else {
             redComputerButton.setSelected(true);
         }
     }
 
-    // Method to replay player moves using Timeline. ***Spamming replay Button using Java Duration and causes game to glitch out***
-    private void replayMovesWithTimeline(List<String> recordedMoves) {
-        Timeline timeline = new Timeline();
+    // Method to replay player moves using Timeline: one move per second from the current replay position,
+    // each read from the record when it is due, until the record ends
+    private void replayMovesWithTimeline() {
         int delay = 1; // Delay in seconds between moves
-        int startIndex = 5; // Start from index 5
-
-        // Loop through all recorded moves and add a KeyFrame for each
-        for (int i = startIndex; i < recordedMoves.size(); i++) {
-            String move = recordedMoves.get(i);
-            String[] moveData = move.split(",");
-            String playerColor = moveData[0];
-            String letter = moveData[1];
-            int row = Integer.parseInt(moveData[2]);
-            int col = Integer.parseInt(moveData[3]);
-
-            // Create a KeyFrame to execute the move after a delay
-            KeyFrame keyFrame = new KeyFrame(
-                Duration.seconds((i - startIndex) * delay), // Adjust delay from start index
-                event -> {
-                    // Set the correct button (S or O)
-                    if (letter.equals("S")) selectSButton();
-                    else selectOButton();
-
-                    // Simulate the move
-                    gameMode.getGameLogic().handleButtonClick(row, col, gameMode.getBoard().getButtonAt(row, col));
-
-                    // Output for debugging
-                    System.out.println("Replayed Move: " + playerColor + " " + letter + " at (" + row + ", " + col + ")");
-                }
-            );
-
-            timeline.getKeyFrames().add(keyFrame);
-        }
+        replayTimeline = new Timeline(new KeyFrame(Duration.seconds(delay), event -> {
+            String problem = readReplayMoves(replayNavigator.getPosition() + 1);
+            if (replayNavigator.stepForward()) showReplayPosition();
+            if (problem != null) infoDisplay.setText("Replay failed: " + problem);
+            if (replayNavigator.getPosition() == replayNavigator.getMoveCount() && replayReader == null) {
+                replayTimeline.stop(); // Nothing left to play
+                finishReplay();
+            }
+        }));
+        replayTimeline.setCycleCount(Timeline.INDEFINITE);
 
-        // Set an action to occur when the timeline finishes. Also, S and O radio button are disabled if players are still computer. If not, enabled.
-        timeline.setOnFinished(event -> {
-            setReplayProgress(false);
-            if (bluePlayer.getPlayerType() == PlayerType.HUMAN) blueSButton.setDisable(false);
-            if (bluePlayer.getPlayerType() == PlayerType.HUMAN) blueOButton.setDisable(false);
-            if (redPlayer.getPlayerType() == PlayerType.HUMAN) redSButton.setDisable(false);
-            if (redPlayer.getPlayerType() == PlayerType.HUMAN) redOButton.setDisable(false);
-        });
-        
         // Start the timeline
-        timeline.play();
+        replayTimeline.play();
+    }
+
+    // Ends replay mode. Also, S and O radio button are disabled if players are still computer. If not, enabled.
+    private void finishReplay() {
+        setReplayProgress(false);
+        if (bluePlayer.getPlayerType() == PlayerType.HUMAN) blueSButton.setDisable(false);
+        if (bluePlayer.getPlayerType() == PlayerType.HUMAN) blueOButton.setDisable(false);
+        if (redPlayer.getPlayerType() == PlayerType.HUMAN) redSButton.setDisable(false);
+        if (redPlayer.getPlayerType() == PlayerType.HUMAN) redOButton.setDisable(false);
     }
 }
\ No newline at end of file
@@ -0,0 +1,97 @@
+package product;
+
+import java.util.Arrays;
+
+// In-memory game record: the setup of a game and its moves in play order.
+// Each move is packed as cell << 2 | letter bit << 1 | player bit, the same layout the binary format stores.
+public class GameRecord {
+    private final int size; // Size of the board
+    private final SOSEngine.Mode mode; // Simple or General rules
+    private final Player.PlayerType blueType; // Human or computer blue player
+    private final Player.PlayerType redType; // Human or computer red player
+    private final long seed; // Random seed of a computer game, 0 if none
+    private int[] moves; // Packed moves
+    private int moveCount;
+
+    // Constructor creates a record without moves
+    public GameRecord(int size, SOSEngine.Mode mode, Player.PlayerType blueType, Player.PlayerType redType, long seed) {
+        this.size = size;
+        this.mode = mode;
+        this.blueType = blueType;
+        this.redType = redType;
+        this.seed = seed;
+        this.moves = new int[Math.min(size * size, 64)];
+    }
+
+    // Packs a move (player is SOSEngine.BLUE or RED, letter is SOSEngine.S or O)
+    public static int packMove(int cell, int letter, int player) {
+        return cell << 2 | (letter == SOSEngine.O ? 2 : 0) | player;
+    }
+
+    // Appends a move
+    public void addMove(int player, int row, int col, int letter) {
+        if (moveCount == moves.length) moves = Arrays.copyOf(moves, moves.length * 2);
+        moves[moveCount++] = packMove(row * size + col, letter, player);
+    }
+
+    // Appends a move that is already packed
+    public void addPackedMove(int move) {
+        if (moveCount == moves.length) moves = Arrays.copyOf(moves, moves.length * 2);
+        moves[moveCount++] = move;
+    }
+
+    // Removes the last move (used when a move is undone)
+    public void removeLastMove() {
+        if (moveCount > 0) moveCount--;
+    }
+
+    // Getters
+    public int getSize() {
+        return size;
+    }
+
+    public SOSEngine.Mode getMode() {
+        return mode;
+    }
+
+    public Player.PlayerType getBlueType() {
+        return blueType;
+    }
+
+    public Player.PlayerType getRedType() {
+        return redType;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    public int getPackedMove(int index) {
+        return moves[index];
+    }
+
+    // Unpacked fields of a move (0 is the first move)
+    public int getMoveCell(int index) {
+        return moves[index] >>> 2;
+    }
+
+    public int getMoveRow(int index) {
+        return getMoveCell(index) / size;
+    }
+
+    public int getMoveCol(int index) {
+        return getMoveCell(index) % size;
+    }
+
+    public int getMoveLetter(int index) {
+        return (moves[index] & 2) != 0 ? SOSEngine.O : SOSEngine.S;
+    }
+
+    public int getMovePlayer(int index) {
+        return moves[index] & 1;
+    }
+}
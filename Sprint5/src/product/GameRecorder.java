@@ -1,10 +1,11 @@
 package product;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -16,9 +17,175 @@ public class GameRecorder {
     private String gameMode;
     private String player1Info;
     private String player2Info;
+    // Background writer used in buffered mode, null when every move is written directly
+    private BufferedMoveWriter bufferedWriter;
+    private Thread shutdownHook; // Closes the background writer if the JVM exits without close()
+    // Archive every finished game is appended to, opened on first use
+    private GameArchive archive;
+    private String archivePath; // Where finished games are archived, null while archiving is off
+    // Crash-safe journal of the moves of the current game, null when journaling is off
+    private MoveJournal journal;
+    private long journalGameId; // Journal id of the current game
+    private int recordedSize; // Board size of the current game
+    private int recordedHeader; // Journal GAME_START value of the current game
+    private int archivedGame = -1; // Archive number of the current game once it has been archived, or -1
+
+    // Constructor keeps the record at its default path, with archiving off
+    public GameRecorder() {
+    }
+
+    // Constructor with the paths of the text record and the game archive (null to leave archiving off)
+    public GameRecorder(String filePath, String archivePath) {
+        this.filePath = filePath;
+        this.archivePath = archivePath;
+    }
+
+    // Turns on archiving: every finished game is appended to the archive at archivePath, whose offset index is
+    // the same path with ".idx" appended. The archive is opened when the first game is archived.
+    public void enableArchive(String archivePath) {
+        if (this.archivePath == null) this.archivePath = archivePath;
+    }
+
+    // Switches to buffered mode: moves are queued (up to queueCapacity) and appended by a background thread
+    // in batches of flushSize lines or every flushIntervalMillis. The record is flushed when a game ends,
+    // before the file is read or rewritten, and on exit.
+    public void enableBufferedMode(int queueCapacity, int flushSize, long flushIntervalMillis) {
+        if (bufferedWriter != null) return;
+        bufferedWriter = new BufferedMoveWriter(filePath, queueCapacity, flushSize, flushIntervalMillis);
+
+        BufferedMoveWriter writer = bufferedWriter;
+        shutdownHook = new Thread(writer::close, "game-recorder-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    // Blocks until every recorded move is in the file (no-op when not buffered). Throws if a move could not be written.
+    public void flush() throws IOException {
+        if (bufferedWriter != null) bufferedWriter.flush();
+    }
+
+    // Turns on the move journal at journalPath: every recorded move is also appended to a checksummed journal
+    // that is forced to disk in groups every commitIntervalMillis. A game is marked finished in the journal and
+    // compacted out of it once it is in the archive. Games left in the journal by a crash (after cutting off
+    // a torn last entry) are moved to the archive. The journal needs the archive, so if archiving is off it is
+    // turned on next to the record file, e.g. gameRecord.bin for gameRecord.txt.
+    public void enableJournal(String journalPath, long commitIntervalMillis) {
+        if (journal != null) return;
+        enableArchive(defaultArchivePath(filePath));
+        try {
+            journal = new MoveJournal(Paths.get(journalPath), commitIntervalMillis);
+            if (journal.getTruncatedBytes() > 0) {
+                System.err.println("Game journal: dropped " + journal.getTruncatedBytes() + " bytes of a torn entry");
+            }
+
+            // Every game still in the journal was interrupted before it was archived
+            List<GameRecord> recovered = journal.readUnfinishedGames();
+            if (!recovered.isEmpty()) {
+                for (GameRecord record : recovered) getArchive().append(record);
+                getArchive().force();
+                journal.reset();
+                System.out.println("Recovered " + recovered.size() + " unfinished game(s) from " + journalPath);
+            }
+        } catch (IOException e) {
+            System.err.println("Error opening game journal: " + e.getMessage());
+            closeJournal();
+        }
+    }
+
+    // Writes any buffered moves, stops the background writer and closes the journal and archive
+    public void close() {
+        if (bufferedWriter != null) {
+            bufferedWriter.close();
+            bufferedWriter = null;
+        }
+        if (shutdownHook != null) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // Already shutting down, the hook is running
+            }
+            shutdownHook = null;
+        }
+        closeJournal();
+        if (archive != null) {
+            try {
+                archive.close();
+            } catch (IOException e) {
+                System.err.println("Error closing game archive: " + e.getMessage());
+            }
+            archive = null;
+        }
+    }
+
+    // Appends the finished game in the record file to the game archive, which keeps every game. A game that was
+    // reopened by undo and finished again replaces its earlier entry, so each game is archived once.
+    public void archiveGame() {
+        if (archivePath == null) return; // Archiving is off
+        try (TextRecordReader reader = openRecord()) {
+            GameRecord record = reader.readAll();
+            boolean archived = archivedGame >= 0 && archivedGame == getArchive().size() - 1;
+            int gameNumber = archived ? getArchive().replaceLast(record) : getArchive().append(record);
+            archivedGame = gameNumber;
+
+            // Once the game is durable in the archive the journal no longer needs it. The journal is committed
+            // first, so its last moves and the end of the game are on disk however the committer is timed.
+            if (journal != null) {
+                getArchive().force();
+                appendToJournal(MoveJournal.GAME_END, 0);
+                commitJournal();
+                compactJournal();
+            }
+            System.out.println("Game " + gameNumber + " archived to " + archivePath);
+        } catch (IOException e) {
+            // Handle archive errors
+            System.err.println("Error archiving game: " + e.getMessage());
+        }
+    }
+
+    // Called when undo reopens a finished game. Archiving removed it from the journal, so the game is journaled again
+    // from its start with the moves still on the board, and its later moves are recovered after a crash.
+    public void reopenGame() {
+        if (journal == null || archivedGame < 0) return;
+        journalGameId = journal.newGameId();
+        appendToJournal(MoveJournal.GAME_START, recordedHeader);
+        try (TextRecordReader reader = openRecord()) {
+            while (reader.next()) {
+                appendToJournal(MoveJournal.MOVE, GameRecord.packMove(reader.getRow() * recordedSize + reader.getCol(), reader.getLetter(), reader.getPlayer()));
+            }
+        } catch (IOException e) {
+            System.err.println("Error journaling reopened game: " + e.getMessage());
+        }
+    }
+
+    // Returns the game archive, opening it if needed
+    public GameArchive getArchive() throws IOException {
+        if (archivePath == null) throw new IOException("Archiving is off");
+        if (archive == null) archive = GameArchive.open(Paths.get(archivePath));
+        return archive;
+    }
+
+    // Archive path next to a record file: the record's name with its extension replaced by ".bin"
+    private static String defaultArchivePath(String filePath) {
+        Path record = Paths.get(filePath);
+        String name = record.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return record.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + ".bin").toString();
+    }
 
     // Initializes the recording by setting game metadata and writing it to the file
     public void initializeRecording(String boardSize, String gameMode, String bluePlayerType, String redPlayer) {
+        try {
+            flush(); // Moves of the previous game must not land after the new metadata
+        } catch (IOException e) {
+            System.err.println("Error saving game moves: " + e.getMessage());
+        }
+        this.recordedSize = Integer.parseInt(boardSize);
+        this.recordedHeader = recordedSize << 8 | BinaryRecordWriter.headerFlags("Simple".equals(gameMode) ? SOSEngine.Mode.SIMPLE : SOSEngine.Mode.GENERAL,
+            Player.PlayerType.valueOf(bluePlayerType), Player.PlayerType.valueOf(redPlayer));
+        this.archivedGame = -1;
+        if (journal != null) {
+            journalGameId = journal.newGameId();
+            appendToJournal(MoveJournal.GAME_START, recordedHeader);
+        }
         // Set metadata values for the game
         this.boardSize = "BoardSize," + boardSize;
         this.gameMode = "GameMode," + gameMode;
@@ -48,6 +215,55 @@ public class GameRecorder {
         }
     }
 
+    // Appends an entry for the current game to the journal, if journaling is on. A journal that fails is
+    // reported and closed: the text record still works, only crash safety is lost.
+    private void appendToJournal(int type, int value) {
+        if (journal == null) return;
+        try {
+            journal.append(type, journalGameId, value);
+        } catch (IOException e) {
+            System.err.println("Error writing game journal, journaling disabled: " + e.getMessage());
+            closeJournal();
+        }
+    }
+
+    // Makes every journal entry durable; a failure is handled like a failed append
+    private void commitJournal() {
+        if (journal == null) return;
+        try {
+            journal.commit();
+        } catch (IOException e) {
+            System.err.println("Error committing game journal, journaling disabled: " + e.getMessage());
+            closeJournal();
+        }
+    }
+
+    // Removes finished games from the journal; a failure is handled like a failed append
+    private void compactJournal() {
+        if (journal == null) return;
+        try {
+            journal.compact();
+        } catch (IOException e) {
+            System.err.println("Error compacting game journal, journaling disabled: " + e.getMessage());
+            closeJournal();
+        }
+    }
+
+    // Commits the moves not yet durable and closes the journal
+    private void closeJournal() {
+        if (journal == null) return;
+        try {
+            try {
+                journal.commit();
+            } finally {
+                journal.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Error closing game journal: " + e.getMessage());
+        }
+        journal = null;
+    }
+
     // Define the file path where the game log will be saved and loaded
     private String filePath = "C:\\Users\\Steven\\Desktop\\Projects\\Sprint5\\gameRecord.txt"; // You can change this path to your desired location
 
@@ -55,6 +271,14 @@ public class GameRecorder {
     public void recordMove(Player.PlayerColor playerColor, String letter, int row, int col) {
         // Format the move log entry as "color,text,row,col"
         String moveEntry = String.format("%s,%s,%d,%d", playerColor, letter, row, col);
+        appendToJournal(MoveJournal.MOVE, GameRecord.packMove(row * recordedSize + col, SOSEngine.letterCode(letter),
+            playerColor == Player.PlayerColor.Blue ? SOSEngine.BLUE : SOSEngine.RED));
+
+        // In buffered mode the background writer appends it
+        if (bufferedWriter != null) {
+            bufferedWriter.append(moveEntry);
+            return;
+        }
 
         // Append the move entry to the file
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath, true))) { // 'true' to append to the file
@@ -67,26 +291,59 @@ public class GameRecorder {
         }
     }
 
-    // Loads the game moves from the file into memory
-    public List<String> loadFromFile() {
-        // List to hold the loaded moves from the file
-        List<String> loadedMoves = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                // Add each line (move) from the file to the loadedMoves list
-                loadedMoves.add(line);
+    // Records the letter currently on the board at (row, col)
+    public void recordMove(Player.PlayerColor playerColor, BitBoard board, int row, int col) {
+        recordMove(playerColor, SOSEngine.letterString(board.get(row, col)), row, col);
+    }
+
+    // Removes the last recorded move from the file (used when a move is undone)
+    public void removeLastMove() {
+        appendToJournal(MoveJournal.UNDO, 0);
+        try {
+            flush();
+        } catch (IOException e) {
+            System.err.println("Error removing game move: " + e.getMessage());
+            return; // The file does not end with the move to remove
+        }
+        try (RandomAccessFile file = new RandomAccessFile(filePath, "rw")) {
+            // Walk back from the newline ending the last move to the newline before it
+            long position = file.length() - 2;
+            while (position >= 0) {
+                file.seek(position);
+                if (file.read() == '\n') break;
+                position--;
             }
-            System.out.println("Game moves loaded successfully from " + filePath);
+            file.setLength(position + 1);
         } catch (IOException e) {
-            // Handle file reading errors
-            System.err.println("Error loading game moves: " + e.getMessage());
+            // Handle file writing errors
+            System.err.println("Error removing game move: " + e.getMessage());
+        }
+    }
+
+    // Opens the recorded game for streaming: metadata is read now, moves one at a time with next()
+    public TextRecordReader openRecord() throws IOException {
+        flush();
+        return TextRecordReader.open(filePath);
+    }
+
+    // Saves the current game record in the compact binary format
+    public void saveBinary(String binaryPath) {
+        try {
+            flush();
+            TextRecordConverter.convert(filePath, binaryPath);
+        } catch (IOException e) {
+            // Handle conversion errors
+            System.err.println("Error saving binary game record: " + e.getMessage());
         }
-        return loadedMoves;
     }
 
     // Resets (clears) the contents of the text file and the game log in memory
     public void resetFile() {
+        try {
+            flush();
+        } catch (IOException e) {
+            System.err.println("Error saving game moves: " + e.getMessage()); // They are cleared anyway
+        }
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
             // Opening the file in write mode and immediately closing it will clear the file content
             writer.close();
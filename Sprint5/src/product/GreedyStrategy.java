@@ -0,0 +1,21 @@
+package product;
+
+import java.util.Random;
+
+// Original computer behaviour: complete an open SOS if there is one, otherwise play a random letter on a random cell
+public class GreedyStrategy implements MoveStrategy {
+
+    private final Random random = new Random();
+
+    @Override
+    public int chooseMove(SOSEngine engine) {
+        // Completing move straight from the threat index
+        int move = engine.getThreats().firstMove();
+        if (move >= 0) return move;
+
+        // Random free cell and random letter
+        int cell = engine.getBoard().getFreeCells().pick(random);
+        if (cell < 0) return -1;
+        return ThreatIndex.moveKey(cell, random.nextBoolean() ? BitBoard.S : BitBoard.O);
+    }
+}
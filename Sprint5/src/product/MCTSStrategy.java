@@ -0,0 +1,215 @@
+package product;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Monte Carlo Tree Search computer player for boards too large for MinimaxStrategy. Worker threads (one per core
+// by default) share one tree: each descends by UCT on its own copy of the engine, expands a leaf, finishes the game
+// with a fast playout (random, or greedy: complete an open SOS first) and adds the result along its path. A visit
+// is counted on the way down, before the result is known (virtual loss), so concurrent workers spread over
+// different branches. The search stops at a time or playout budget and plays the most visited root move.
+// Results are wins for the player who made a node's move, so Simple and General rules (extra turns) both apply.
+public class MCTSStrategy implements MoveStrategy {
+
+    private static final double EXPLORATION = 1.4; // UCT exploration constant, for rewards between 0 and 1
+    private static final int EXPAND_VISITS = 2; // A leaf gets children from its second visit on
+
+    private final long timeBudgetMillis;
+    private final int playoutBudget;
+    private final int threads;
+    private final boolean greedyPlayouts;
+    private final AtomicInteger playouts = new AtomicInteger(); // Playouts finished by the last search
+
+    // Constructor searches for a time budget on every core with greedy playouts
+    public MCTSStrategy(long timeBudgetMillis) {
+        this(timeBudgetMillis, Integer.MAX_VALUE, Runtime.getRuntime().availableProcessors(), true);
+    }
+
+    // Constructor with all settings. The search stops at whichever budget runs out first.
+    public MCTSStrategy(long timeBudgetMillis, int playoutBudget, int threads, boolean greedyPlayouts) {
+        this.timeBudgetMillis = Math.max(1, timeBudgetMillis);
+        this.playoutBudget = Math.max(1, playoutBudget);
+        this.threads = Math.max(1, threads);
+        this.greedyPlayouts = greedyPlayouts;
+    }
+
+    @Override
+    public long getThinkingTimeMillis() {
+        return timeBudgetMillis;
+    }
+
+    // Returns the number of playouts finished by the last search
+    public int getPlayoutCount() {
+        return playouts.get();
+    }
+
+    @Override
+    public int chooseMove(SOSEngine game) {
+        if (game.isGameOver() || game.isBoardFull()) return -1;
+
+        // In a simple game a completing move wins at once
+        if (game.getMode() == SOSEngine.Mode.SIMPLE && !game.getThreats().isEmpty()) return game.getThreats().firstMove();
+
+        Node root = new Node(-1, -1);
+        root.expand(game, new Random()); // Even a single playout then has a move to report
+        long deadline = System.nanoTime() + timeBudgetMillis * 1_000_000;
+        AtomicInteger started = new AtomicInteger();
+        playouts.set(0);
+
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            SOSEngine engine = game.copy(); // Every worker moves on its own copy
+            Random random = new Random(System.nanoTime() + i);
+            workers[i] = new Thread(() -> {
+                Node[] path = new Node[engine.getSize() * engine.getSize() + 1];
+                while (System.nanoTime() < deadline && started.getAndIncrement() < playoutBudget) {
+                    if (Thread.currentThread().isInterrupted()) return;
+                    iterate(root, engine, random, path);
+                    playouts.incrementAndGet();
+                }
+            }, "mcts-worker-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+
+        try {
+            for (Thread worker : workers) worker.join();
+        } catch (InterruptedException e) {
+            // The computer move was cancelled: stop the workers and return what was found so far
+            for (Thread worker : workers) worker.interrupt();
+            Thread.currentThread().interrupt();
+        }
+        return root.mostVisitedMove();
+    }
+
+    // One search iteration: select and expand down the tree, play the game out, back the result up, undo the moves
+    private void iterate(Node root, SOSEngine engine, Random random, Node[] path) {
+        int size = engine.getSize();
+        int depth = 0;
+        Node node = root;
+        root.addVisit();
+
+        // Selection and expansion
+        while (!engine.isGameOver()) {
+            Node[] children = node.children;
+            if (children == null) {
+                if (node.getVisits() < EXPAND_VISITS) break;
+                children = node.expand(engine, random);
+            }
+
+            Node child = select(node, children);
+            child.addVisit(); // Virtual loss until the result is added
+            int cell = ThreatIndex.moveCell(child.move);
+            engine.makeMove(cell / size, cell % size, ThreatIndex.moveLetter(child.move));
+            path[depth++] = child;
+            node = child;
+        }
+
+        // Playout
+        while (!engine.isGameOver()) {
+            int move = greedyPlayouts ? engine.getThreats().firstMove() : -1;
+            int cell = move >= 0 ? ThreatIndex.moveCell(move) : engine.getBoard().getFreeCells().pick(random);
+            int letter = move >= 0 ? ThreatIndex.moveLetter(move) : random.nextBoolean() ? BitBoard.S : BitBoard.O;
+            engine.makeMove(cell / size, cell % size, letter);
+        }
+
+        // Backpropagation: 2 for a win of the node's mover, 1 for a draw
+        SOSEngine.Outcome result = engine.getResult();
+        int winner = result == SOSEngine.Outcome.BLUE_WINS ? SOSEngine.BLUE : result == SOSEngine.Outcome.RED_WINS ? SOSEngine.RED : -1;
+        for (int i = 0; i < depth; i++) {
+            path[i].addReward(winner < 0 ? 1 : winner == path[i].player ? 2 : 0);
+        }
+
+        while (engine.undoMove()) {
+            // Back to the root position
+        }
+    }
+
+    // UCT: the child with the best average reward plus exploration bonus; unvisited children first
+    private static Node select(Node parent, Node[] children) {
+        double logVisits = Math.log(Math.max(1, parent.getVisits()));
+        Node best = children[0];
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (Node child : children) {
+            long stats = child.stats.get();
+            int visits = (int) (stats >>> 32);
+            if (visits == 0) return child;
+
+            double value = (stats & 0xFFFFFFFFL) / (2.0 * visits) + EXPLORATION * Math.sqrt(logVisits / visits);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    // Tree node for the position after a move. Visits and rewards are packed into one long
+    // (visits << 32 | reward in half points) so workers update them without locks.
+    private static final class Node {
+        final int move; // ThreatIndex move key leading here, -1 at the root
+        final int player; // Player who made the move
+        final AtomicLong stats = new AtomicLong();
+        volatile Node[] children; // Null until expanded
+
+        Node(int move, int player) {
+            this.move = move;
+            this.player = player;
+        }
+
+        int getVisits() {
+            return (int) (stats.get() >>> 32);
+        }
+
+        void addVisit() {
+            stats.addAndGet(1L << 32);
+        }
+
+        void addReward(int halfPoints) {
+            stats.addAndGet(halfPoints);
+        }
+
+        // Creates a child for every legal move, in random order, unless another worker already did
+        synchronized Node[] expand(SOSEngine engine, Random random) {
+            if (children != null) return children;
+
+            int mover = engine.getCurrentPlayer();
+            ThreatIndex threats = engine.getThreats();
+            Node[] created;
+            if (engine.getMode() == SOSEngine.Mode.SIMPLE && !threats.isEmpty()) {
+                // A completing move wins, so nothing else needs to be searched
+                created = new Node[threats.size()];
+                for (int i = 0; i < created.length; i++) created[i] = new Node(threats.getMove(i), mover);
+            } else {
+                FreeCellSet freeCells = engine.getBoard().getFreeCells();
+                created = new Node[freeCells.size() * 2];
+                for (int i = 0; i < freeCells.size(); i++) {
+                    created[2 * i] = new Node(ThreatIndex.moveKey(freeCells.get(i), BitBoard.S), mover);
+                    created[2 * i + 1] = new Node(ThreatIndex.moveKey(freeCells.get(i), BitBoard.O), mover);
+                }
+            }
+
+            for (int i = created.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                Node swap = created[i];
+                created[i] = created[j];
+                created[j] = swap;
+            }
+            children = created;
+            return created;
+        }
+
+        // Move of the most visited child, or -1 if the node was never expanded
+        int mostVisitedMove() {
+            Node[] nodes = children;
+            if (nodes == null) return -1;
+
+            Node best = nodes[0];
+            for (Node child : nodes) {
+                if (child.getVisits() > best.getVisits()) best = child;
+            }
+            return best.move;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package product;
+
+// Search-based computer player: negamax with alpha-beta pruning to a fixed depth, backed by a transposition table.
+// Simple mode: the first SOS wins. General mode: values are the future score margin for the side to move,
+// and scoring keeps the turn, so a scoring move adds its points without negating the child's value.
+// The search runs make/undo on one private copy of the engine, so no position is ever copied during search.
+// With a time budget the search is anytime: it deepens one ply at a time until the budget runs out and plays the
+// best move of the deepest fully searched ply, so the time spent on a move is real thinking time.
+public class MinimaxStrategy implements MoveStrategy {
+
+    private static final int WIN = 1_000_000; // Simple mode win value (plus remaining depth, so faster wins rank higher)
+    private static final int INFINITY = Integer.MAX_VALUE / 2;
+    private static final int DEFAULT_TABLE_BITS = 18; // 2^18 entries, 4 MB
+    private static final int CLOCK_CHECK_NODES = 1024; // Nodes between looks at the clock and the interrupt flag
+
+    private final int maxDepth;
+    private final TranspositionTable table; // Results kept across searches, keyed by board hash
+    private final long timeBudgetMillis; // 0 for a fixed-depth search
+
+    // Search state, rebuilt for every chooseMove call
+    private SOSEngine engine;
+    private int size;
+    private long variantKey; // Mixed into every table key, since the table may outlive a game of this size and mode
+    private int[][] moveBuffers; // One move list per depth, so move generation does not allocate
+    private long nodes; // Positions visited by the last search
+    private long deadline; // System.nanoTime() at which an anytime search stops
+    private boolean aborted; // Set when the deadline passes; the unfinished ply is thrown away
+    private int completedDepth; // Deepest ply fully searched by the last search
+
+    // Constructor sets the search depth in plies (at least 1) and creates a default-sized table
+    public MinimaxStrategy(int maxDepth) {
+        this(maxDepth, new TranspositionTable(DEFAULT_TABLE_BITS));
+    }
+
+    // Constructor with a caller-supplied table (may be shared, or null to search without one)
+    public MinimaxStrategy(int maxDepth, TranspositionTable table) {
+        this(maxDepth, 0, table);
+    }
+
+    // Constructor for an anytime search: deepens up to maxDepth plies while the time budget lasts
+    // (e.g. 50 ms for fast bot games, 2000 ms for strong play)
+    public MinimaxStrategy(int maxDepth, long timeBudgetMillis, TranspositionTable table) {
+        this.maxDepth = Math.max(1, maxDepth);
+        this.timeBudgetMillis = Math.max(0, timeBudgetMillis);
+        this.table = table;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    // Returns the number of positions visited by the last search
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    // Returns the deepest ply the last search finished
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    @Override
+    public long getThinkingTimeMillis() {
+        return timeBudgetMillis;
+    }
+
+    @Override
+    public int chooseMove(SOSEngine game) {
+        if (game.isGameOver() || game.isBoardFull()) return -1;
+
+        engine = game.copy(); // Search on a private copy so the game (and its listeners) are never touched
+        size = engine.getSize();
+        variantKey = ZobristHash.variantKey(size, engine.getMode());
+        moveBuffers = new int[maxDepth + 1][]; // Filled on first use, so deep anytime limits cost no memory up front
+        nodes = 0;
+        aborted = false;
+        completedDepth = 0;
+
+        int[] moves = moveBuffer(maxDepth);
+        int count = generateMoves(moves);
+        if (timeBudgetMillis == 0) return searchRoot(moves, count, maxDepth, moves[0]);
+
+        // Anytime search: each ply starts from the best move of the one before
+        deadline = System.nanoTime() + timeBudgetMillis * 1_000_000;
+        int bestMove = moves[0];
+        int freeCells = engine.getBoard().getFreeCells().size();
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            moveToFront(moves, count, bestMove);
+            int move = searchRoot(moves, count, depth, bestMove);
+            if (aborted) {
+                if (completedDepth == 0) bestMove = move; // Best of the root moves searched so far
+                break;
+            }
+            bestMove = move;
+            completedDepth = depth;
+            if (depth >= freeCells) break; // The whole game has been searched
+        }
+        return bestMove;
+    }
+
+    // Searches every root move depth plies deep and returns the best. If the search is aborted, returns the best
+    // of the moves finished before that, or fallback if there are none.
+    private int searchRoot(int[] moves, int count, int depth, int fallback) {
+        int bestMove = fallback;
+        int alpha = -INFINITY;
+
+        for (int i = 0; i < count; i++) {
+            int value = searchMove(moves[i], depth, alpha, INFINITY);
+            if (aborted) break;
+            if (value > alpha) {
+                alpha = value;
+                bestMove = moves[i];
+            }
+        }
+        if (!aborted) completedDepth = depth;
+        return bestMove;
+    }
+
+    // Returns the value of the position for the side to move, searched depth plies deep.
+    // Values only depend on the letters on the board (not on whose colour moves or the scores so far) and do not
+    // change under the board's symmetries, so the canonical board hash (with the size and mode mixed in) is the
+    // table key and the stored best move is kept in the canonical orientation.
+    private int negamax(int depth, int alpha, int beta) {
+        nodes++;
+        if (nodes % CLOCK_CHECK_NODES == 0 && (Thread.currentThread().isInterrupted() || timeBudgetMillis > 0 && System.nanoTime() > deadline)) {
+            aborted = true; // Out of time, or the computer move was cancelled
+        }
+        if (aborted) return 0;
+        if (depth == 0) return evaluate();
+
+        BitBoard board = engine.getBoard();
+        int symmetry = board.getCanonicalSymmetry();
+        long key = board.getSymmetryHash(symmetry) ^ variantKey;
+        int tableMove = -1;
+        if (table != null) {
+            long entry = table.probe(key);
+            if (entry != 0) {
+                tableMove = ThreatIndex.transformMove(board, BitBoard.inverseSymmetry(symmetry), TranspositionTable.move(entry));
+                if (TranspositionTable.depth(entry) >= depth) {
+                    int value = TranspositionTable.value(entry);
+                    int bound = TranspositionTable.bound(entry);
+                    if (bound == TranspositionTable.EXACT) return value;
+                    if (bound == TranspositionTable.LOWER && value >= beta) return value;
+                    if (bound == TranspositionTable.UPPER && value <= alpha) return value;
+                }
+            }
+        }
+
+        int[] moves = moveBuffer(depth);
+        int count = generateMoves(moves);
+        if (tableMove >= 0) moveToFront(moves, count, tableMove); // Try the remembered best move first
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = -1;
+
+        for (int i = 0; i < count; i++) {
+            int value = searchMove(moves[i], depth, alpha, beta);
+            if (aborted) return 0; // Unfinished: nothing is stored
+            if (value > best) {
+                best = value;
+                bestMove = moves[i];
+            }
+            if (value > alpha) alpha = value;
+            if (alpha >= beta) break; // Opponent will avoid this line
+        }
+
+        if (table != null) {
+            int bound = best <= originalAlpha ? TranspositionTable.UPPER
+                      : best >= beta ? TranspositionTable.LOWER
+                      : TranspositionTable.EXACT;
+            table.store(key, best, depth, bound, ThreatIndex.transformMove(board, symmetry, bestMove));
+        }
+        return best;
+    }
+
+    // Returns the move list for a depth, creating it on first use
+    private int[] moveBuffer(int depth) {
+        if (moveBuffers[depth] == null) moveBuffers[depth] = new int[engine.getBoard().getFreeCells().size() * 2 + 2];
+        return moveBuffers[depth];
+    }
+
+    // Moves a move to the front of the list, if present
+    private static void moveToFront(int[] moves, int count, int move) {
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                moves[i] = moves[0];
+                moves[0] = move;
+                return;
+            }
+        }
+    }
+
+    // Makes a move, searches the resulting position and undoes the move. Value is for the player making the move.
+    private int searchMove(int move, int depth, int alpha, int beta) {
+        int cell = ThreatIndex.moveCell(move);
+        int gained = engine.makeMove(cell / size, cell % size, ThreatIndex.moveLetter(move));
+        int value;
+
+        if (engine.getMode() == SOSEngine.Mode.SIMPLE) {
+            if (gained > 0) value = WIN + depth;
+            else if (engine.isGameOver()) value = 0; // Full board without SOS
+            else value = -negamax(depth - 1, -beta, -alpha);
+        } else {
+            if (engine.isGameOver()) value = gained;
+            else if (gained > 0) value = gained + negamax(depth - 1, alpha - gained, beta - gained); // Same player moves again
+            else value = -negamax(depth - 1, -beta, -alpha);
+        }
+
+        engine.undoMove();
+        return value;
+    }
+
+    // Static evaluation at the search horizon, for the side to move, read from the engine's threat index
+    private int evaluate() {
+        ThreatIndex threats = engine.getThreats();
+        if (engine.getMode() == SOSEngine.Mode.SIMPLE) return threats.isEmpty() ? 0 : WIN; // Side to move completes an SOS and wins
+        return threats.getOpenWindowCount(); // Side to move can collect the open windows
+    }
+
+    // Fills moves with every legal move, scoring moves first. Returns the number of moves.
+    private int generateMoves(int[] moves) {
+        FreeCellSet freeCells = engine.getBoard().getFreeCells();
+        ThreatIndex threats = engine.getThreats();
+        int scoring = 0;
+        int count = 0;
+
+        for (int i = 0; i < freeCells.size(); i++) {
+            int cell = freeCells.get(i);
+            for (int letter = BitBoard.S; letter <= BitBoard.O; letter++) {
+                int move = ThreatIndex.moveKey(cell, letter);
+                moves[count] = move;
+
+                // Move ordering: bring moves that complete an SOS to the front
+                if (threats.completions(cell, letter) > 0) {
+                    moves[count] = moves[scoring];
+                    moves[scoring++] = move;
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+}
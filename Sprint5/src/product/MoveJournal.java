@@ -0,0 +1,361 @@
+package product;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+// Crash-safe append-only journal of game events. Each entry is framed as (int length, int CRC-32, payload)
+// with payload (byte type, long game id, int value), so a torn or corrupted tail is detected on open and
+// cut off. Appends only write; a committer thread makes them durable with one force() for everything
+// written so far, either when a caller waits in commit() or every commitIntervalMillis. Callers that
+// commit while a force is running are served together by the next one (group commit across games).
+// Games end with a GAME_END entry once they are stored elsewhere, and compact() removes finished games
+// while keeping the games still in progress.
+public class MoveJournal implements Closeable {
+
+    // Entry types. The value is the header for GAME_START (size << 8 | BinaryRecordWriter flags),
+    // a GameRecord packed move for MOVE, and unused for UNDO and GAME_END.
+    public static final int GAME_START = 1;
+    public static final int MOVE = 2;
+    public static final int UNDO = 3;
+    public static final int GAME_END = 4;
+
+    private static final int PAYLOAD_BYTES = 13;
+    public static final int ENTRY_BYTES = 8 + PAYLOAD_BYTES;
+
+    // Receives the entries of the journal in order
+    public interface EntryVisitor {
+        void visit(int type, long gameId, int value);
+    }
+
+    private final Path path;
+    private final long commitIntervalMillis;
+    private final Thread committer;
+    private final long recoveredBytes; // Valid bytes found on open
+    private final long truncatedBytes; // Torn or corrupt bytes cut off on open
+
+    // Guarded by lock
+    private final Object lock = new Object();
+    private final ByteBuffer entry = ByteBuffer.allocate(ENTRY_BYTES);
+    private final CRC32 crc = new CRC32();
+    private FileChannel channel; // Replaced by compact()
+    private boolean forcing; // Set while the committer forces the channel outside the lock
+    private long end; // End of the written entries
+    private long durable; // End of the entries known to be on disk
+    private long requested; // Highest position a caller waits for
+    private long nextGameId;
+    private int generation; // Incremented by reset, so a force started before it is not counted after it
+    private boolean closed;
+    private IOException failure; // First write or force error, reported to every later caller
+
+    // Opens (or creates) a journal, cuts off a torn tail and starts the committer thread
+    public MoveJournal(Path path, long commitIntervalMillis) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.commitIntervalMillis = commitIntervalMillis;
+
+        // Recovery: keep the longest prefix of intact entries
+        long[] maxGameId = {-1};
+        long valid = scan((type, gameId, value) -> maxGameId[0] = Math.max(maxGameId[0], gameId));
+        long size = channel.size();
+        if (size > valid) {
+            channel.truncate(valid);
+            channel.force(true);
+        }
+        recoveredBytes = valid;
+        truncatedBytes = size - valid;
+        end = valid;
+        durable = valid;
+        requested = valid;
+        nextGameId = maxGameId[0] + 1;
+
+        committer = new Thread(this::runCommitter, "game-journal-committer");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    // Bytes of intact entries found and bytes cut off when the journal was opened
+    public long getRecoveredBytes() {
+        return recoveredBytes;
+    }
+
+    public long getTruncatedBytes() {
+        return truncatedBytes;
+    }
+
+    // Returns an id no other game in this journal has used
+    public long newGameId() {
+        synchronized (lock) {
+            return nextGameId++;
+        }
+    }
+
+    // Appends an entry and returns the journal position after it, to be passed to commit().
+    // The entry is written but not yet durable.
+    public long append(int type, long gameId, int value) throws IOException {
+        synchronized (lock) {
+            if (failure != null) throw failure;
+            if (closed) throw new IOException("Journal is closed");
+
+            encode(type, gameId, value);
+            try {
+                long position = end;
+                while (entry.hasRemaining()) position += channel.write(entry, position);
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            }
+            if (gameId >= nextGameId) nextGameId = gameId + 1;
+            end += ENTRY_BYTES;
+            return end;
+        }
+    }
+
+    // Blocks until every entry up to position is on disk
+    public void commit(long position) throws IOException {
+        synchronized (lock) {
+            if (position > requested) {
+                requested = position;
+                lock.notifyAll(); // Wake the committer
+            }
+            while (durable < position) {
+                if (failure != null) throw failure;
+                if (closed && !committer.isAlive()) throw new IOException("Journal is closed");
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for the journal", e);
+                }
+            }
+        }
+    }
+
+    // Blocks until every entry appended so far is on disk, without waiting for the commit interval
+    public void commit() throws IOException {
+        long position;
+        synchronized (lock) {
+            position = end;
+        }
+        commit(position);
+    }
+
+    // Appends an entry and waits until it is durable
+    public void appendAndCommit(int type, long gameId, int value) throws IOException {
+        commit(append(type, gameId, value));
+    }
+
+    // Reads every intact entry from the start of the journal
+    public void forEach(EntryVisitor visitor) throws IOException {
+        synchronized (lock) {
+            scan(visitor);
+        }
+    }
+
+    // Rebuilds the games in the journal that have no GAME_END entry (undos applied), in the order they started
+    public List<GameRecord> readUnfinishedGames() throws IOException {
+        Map<Long, GameRecord> games = new LinkedHashMap<>();
+        forEach((type, gameId, value) -> {
+            if (type == GAME_START) {
+                games.put(gameId, BinaryRecordReader.newRecord(value >>> 8, value & 0xFF, 0L));
+                return;
+            }
+            GameRecord record = games.get(gameId);
+            if (record == null) return; // Started before the journal was reset
+            if (type == MOVE) record.addPackedMove(value);
+            else if (type == UNDO) record.removeLastMove();
+            else if (type == GAME_END) games.remove(gameId);
+        });
+        return new ArrayList<>(games.values());
+    }
+
+    // Removes every finished game (one with a GAME_END entry), and entries of games whose start was already
+    // removed, keeping the games in progress. The kept entries are written to a new file that atomically
+    // replaces the journal, so a crash leaves either the old or the compacted journal.
+    public void compact() throws IOException {
+        synchronized (lock) {
+            if (failure != null) throw failure;
+            if (closed) throw new IOException("Journal is closed");
+            while (forcing) {
+                try {
+                    lock.wait(); // The channel must not be replaced under a running force
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while compacting the journal", e);
+                }
+            }
+
+            Set<Long> inProgress = new HashSet<>();
+            scan((type, gameId, value) -> {
+                if (type == GAME_START) inProgress.add(gameId);
+                else if (type == GAME_END) inProgress.remove(gameId);
+            });
+            if (inProgress.isEmpty()) {
+                truncate(); // Nothing to keep
+                return;
+            }
+
+            ByteArrayOutputStream kept = new ByteArrayOutputStream();
+            scan((type, gameId, value) -> {
+                if (!inProgress.contains(gameId)) return;
+                encode(type, gameId, value);
+                kept.write(entry.array(), 0, ENTRY_BYTES);
+            });
+
+            Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+            try {
+                try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    ByteBuffer bytes = ByteBuffer.wrap(kept.toByteArray());
+                    while (bytes.hasRemaining()) out.write(bytes);
+                    out.force(true);
+                }
+                channel.close(); // The journal file can only be replaced once it is closed
+                Files.move(compacted, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            } catch (IOException e) {
+                failure = e;
+                lock.notifyAll();
+                throw e;
+            }
+            end = kept.size();
+            durable = end;
+            requested = end;
+            generation++;
+        }
+    }
+
+    // Empties the journal once every game in it is stored durably elsewhere
+    public void reset() throws IOException {
+        synchronized (lock) {
+            if (failure != null) throw failure;
+            truncate();
+        }
+    }
+
+    // Empties the file (called with the lock held)
+    private void truncate() throws IOException {
+        channel.truncate(0);
+        channel.force(true);
+        end = 0;
+        durable = 0;
+        requested = 0;
+        generation++;
+    }
+
+    // Frames an entry in the entry buffer, ready to be written (called with the lock held)
+    private void encode(int type, long gameId, int value) {
+        entry.clear();
+        entry.putInt(PAYLOAD_BYTES).putInt(0).put((byte) type).putLong(gameId).putInt(value);
+        crc.reset();
+        crc.update(entry.array(), 8, PAYLOAD_BYTES);
+        entry.putInt(4, (int) crc.getValue());
+        entry.flip();
+    }
+
+    // Makes everything written durable and stops the committer
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        synchronized (lock) {
+            if (failure != null) throw failure;
+        }
+    }
+
+    // Committer thread: force whatever is written when asked, or at least every commit interval
+    private void runCommitter() {
+        while (true) {
+            long target;
+            int targetGeneration;
+            FileChannel forced;
+            synchronized (lock) {
+                if (requested <= durable && !closed) {
+                    try {
+                        lock.wait(commitIntervalMillis);
+                    } catch (InterruptedException e) {
+                        closed = true;
+                    }
+                }
+                target = end;
+                targetGeneration = generation;
+                if (target == durable) {
+                    if (closed) return;
+                    continue;
+                }
+                forced = channel;
+                forcing = true;
+            }
+
+            try {
+                forced.force(false);
+            } catch (IOException e) {
+                synchronized (lock) {
+                    forcing = false;
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+
+            synchronized (lock) {
+                forcing = false;
+                if (targetGeneration == generation) durable = target;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    // Passes every intact entry to the visitor and returns the position after the last one
+    private long scan(EntryVisitor visitor) throws IOException {
+        channel.position(0);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        byte[] payload = new byte[PAYLOAD_BYTES];
+        CRC32 check = new CRC32();
+        long position = 0;
+
+        while (true) {
+            try {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length != PAYLOAD_BYTES) return position; // Garbage or a torn length
+                in.readFully(payload);
+
+                check.reset();
+                check.update(payload, 0, PAYLOAD_BYTES);
+                if ((int) check.getValue() != checksum) return position; // Torn or corrupt entry
+
+                ByteBuffer fields = ByteBuffer.wrap(payload);
+                visitor.visit(fields.get(), fields.getLong(), fields.getInt());
+                position += ENTRY_BYTES;
+            } catch (EOFException e) {
+                return position; // Clean end or a torn entry
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package product;
+
+// Chooses the computer's next move on the headless engine
+public interface MoveStrategy {
+
+    // Returns the chosen move as a ThreatIndex move key (cell and letter), or -1 if there is no legal move.
+    // The engine's current player is the side to move; implementations must leave the engine unchanged.
+    int chooseMove(SOSEngine engine);
+
+    // Time the strategy thinks about a move, or 0 if it answers at once. ComputerLogic only adds its
+    // visual delay before the moves of strategies that answer at once.
+    default long getThinkingTimeMillis() {
+        return 0;
+    }
+}
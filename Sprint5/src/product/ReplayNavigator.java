@@ -0,0 +1,122 @@
+package product;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Random-access replay of a recorded game on an engine. When the record is loaded the game is played
+// through once and a snapshot is saved every interval moves, so any move can be reached by restoring the
+// nearest earlier snapshot and applying at most interval - 1 moves. Replays on screen use a private engine,
+// so seeking never fires the score listener of the game being shown.
+public class ReplayNavigator {
+    public static final int DEFAULT_INTERVAL = 8;
+
+    private final GameRecord record;
+    private final SOSEngine engine;
+    private final int interval;
+    private final List<SOSEngine.Snapshot> snapshots = new ArrayList<>(); // Snapshot i is taken after i * interval moves
+    private int position; // Number of record moves applied to the engine
+
+    // Constructor builds the snapshots and leaves the engine at the start of the game.
+    // Throws an IllegalArgumentException if a recorded move is not legal.
+    public ReplayNavigator(GameRecord record, SOSEngine engine, int interval) {
+        if (engine.getSize() != record.getSize() || engine.getMode() != record.getMode()) {
+            throw new IllegalArgumentException("Engine does not match the recorded board size and mode");
+        }
+        this.record = record;
+        this.engine = engine;
+        this.interval = interval;
+
+        engine.reset();
+        for (int move = 0; move < record.getMoveCount(); move++) {
+            if (move % interval == 0) snapshots.add(engine.snapshot());
+            applyMove(move);
+        }
+        if (record.getMoveCount() % interval == 0) snapshots.add(engine.snapshot());
+        position = record.getMoveCount();
+        seek(0);
+    }
+
+    public ReplayNavigator(GameRecord record, SOSEngine engine) {
+        this(record, engine, DEFAULT_INTERVAL);
+    }
+
+    // Constructor that replays on a new engine of the recorded size and mode
+    public ReplayNavigator(GameRecord record) {
+        this(record, new SOSEngine(record.getSize(), record.getMode()));
+    }
+
+    // Getters
+    public SOSEngine getEngine() {
+        return engine;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public int getMoveCount() {
+        return record.getMoveCount();
+    }
+
+    // Shows the position after the given number of moves (clamped to the recorded range)
+    public void seek(int target) {
+        target = Math.max(0, Math.min(target, record.getMoveCount()));
+
+        // Moves since the last restore can be undone when the target is only a little behind
+        int undoable = engine.getMoveCount();
+        if (target <= position && position - target <= undoable && position - target < interval) {
+            while (position > target) {
+                engine.undoMove();
+                position--;
+            }
+            return;
+        }
+
+        // Otherwise start from the nearest snapshot unless going forward from here is shorter
+        int snapshotMove = target / interval * interval;
+        if (target < position || snapshotMove > position) {
+            engine.restore(snapshots.get(target / interval));
+            position = snapshotMove;
+        }
+        while (position < target) applyMove(position++);
+    }
+
+    // Adds a move read after the navigator was built, so a replay can start before its whole record is read.
+    // The move is checked like ReplayVerifier does, and the shown position does not change.
+    // Throws an IllegalArgumentException if the move is not legal after the moves before it.
+    public void addMove(int player, int row, int col, int letter) {
+        int shown = position;
+        seek(record.getMoveCount());
+        String problem = ReplayVerifier.checkMove(engine, player, row, col);
+        if (problem != null) {
+            seek(shown);
+            throw new IllegalArgumentException("Recorded move " + (record.getMoveCount() + 1) + ": " + problem);
+        }
+
+        record.addMove(player, row, col, letter);
+        applyMove(position++);
+        if (position % interval == 0) snapshots.add(engine.snapshot());
+        seek(shown);
+    }
+
+    // Moves one move forward or back. Returns false at either end of the game.
+    public boolean stepForward() {
+        if (position == record.getMoveCount()) return false;
+        seek(position + 1);
+        return true;
+    }
+
+    public boolean stepBack() {
+        if (position == 0) return false;
+        seek(position - 1);
+        return true;
+    }
+
+    // Plays recorded move i for the player who made it
+    private void applyMove(int i) {
+        engine.setCurrentPlayer(record.getMovePlayer(i));
+        if (engine.makeMove(record.getMoveRow(i), record.getMoveCol(i), record.getMoveLetter(i)) == SOSEngine.INVALID_MOVE) {
+            throw new IllegalArgumentException("Recorded move " + (i + 1) + " is not legal");
+        }
+    }
+}
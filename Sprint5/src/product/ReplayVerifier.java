@@ -0,0 +1,122 @@
+package product;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+// Re-executes recorded games on the headless engine as fast as possible, recomputing scores and the winner,
+// and reports the first move that diverges from the rules: a cell off the board, an occupied cell, a move
+// after the game ended, or a move by the wrong player given the extra-turn rules.
+// Engines are reused per board size, so bulk verification of an archive allocates almost nothing per game.
+public class ReplayVerifier {
+
+    // Result of verifying one game
+    public static final class Report {
+        private final int failedMove; // Index of the first bad move, -1 if every move is legal
+        private final String problem; // Description of the bad move, null if none
+        private final int blueScore;
+        private final int redScore;
+        private final SOSEngine.Outcome result; // Winner or draw, null if the game did not finish
+
+        private Report(int failedMove, String problem, SOSEngine engine) {
+            this.failedMove = failedMove;
+            this.problem = problem;
+            this.blueScore = engine.getScore(SOSEngine.BLUE);
+            this.redScore = engine.getScore(SOSEngine.RED);
+            this.result = engine.getResult();
+        }
+
+        public boolean isValid() {
+            return failedMove < 0;
+        }
+
+        public int getFailedMove() {
+            return failedMove;
+        }
+
+        public String getProblem() {
+            return problem;
+        }
+
+        public int getScore(int player) {
+            return player == SOSEngine.BLUE ? blueScore : redScore;
+        }
+
+        public SOSEngine.Outcome getResult() {
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            String scores = "Blue " + blueScore + ", Red " + redScore + ", " + (result == null ? "unfinished" : result);
+            return isValid() ? "OK (" + scores + ")" : "Move " + (failedMove + 1) + ": " + problem + " (" + scores + ")";
+        }
+    }
+
+    private final Map<Integer, SOSEngine[]> engines = new HashMap<>(); // Reused engines by size, per mode
+
+    // Verifies one game
+    public Report verify(GameRecord record) {
+        SOSEngine engine = engineFor(record.getSize(), record.getMode());
+
+        for (int i = 0; i < record.getMoveCount(); i++) {
+            int row = record.getMoveRow(i);
+            int col = record.getMoveCol(i);
+            String problem = checkMove(engine, record.getMovePlayer(i), row, col);
+            if (problem != null) return new Report(i, problem, engine);
+            engine.makeMove(row, col, record.getMoveLetter(i));
+        }
+        return new Report(-1, null, engine);
+    }
+
+    // Checks one move on a board cell against the engine's position. Returns what is wrong with it, or null
+    // if the player may move there (used by verify and by replays that check moves as they are read).
+    public static String checkMove(SOSEngine engine, int player, int row, int col) {
+        if (engine.isGameOver()) return "move after the game ended";
+        if (row < 0 || col < 0 || row >= engine.getSize() || col >= engine.getSize()) return "cell (" + row + ", " + col + ") is off the board";
+        if (!engine.isValidMove(row, col)) return "cell (" + row + ", " + col + ") is occupied";
+        if (player != engine.getCurrentPlayer()) return (player == SOSEngine.BLUE ? "Blue" : "Red") + " moved out of turn";
+        return null;
+    }
+
+    // Verifies every game of an archive, passing each game that fails to onFailure with its number.
+    // Returns the number of failed games.
+    public int verifyArchive(GameArchive archive, BiConsumer<Integer, Report> onFailure) throws IOException {
+        int failures = 0;
+        for (int n = 0; n < archive.size(); n++) {
+            Report report = verify(archive.get(n));
+            if (!report.isValid()) {
+                failures++;
+                onFailure.accept(n, report);
+            }
+        }
+        return failures;
+    }
+
+    // Returns a reset engine for a board size and mode
+    private SOSEngine engineFor(int size, SOSEngine.Mode mode) {
+        SOSEngine[] byMode = engines.computeIfAbsent(size, s -> new SOSEngine[SOSEngine.Mode.values().length]);
+        SOSEngine engine = byMode[mode.ordinal()];
+        if (engine == null) {
+            engine = new SOSEngine(size, mode);
+            byMode[mode.ordinal()] = engine;
+        }
+        engine.reset();
+        return engine;
+    }
+
+    // Bulk-verifies archives given as data file paths (each with its ".idx" index next to it)
+    public static void main(String[] args) throws IOException {
+        ReplayVerifier verifier = new ReplayVerifier();
+        for (String arg : args) {
+            try (GameArchive archive = GameArchive.open(Paths.get(arg))) {
+                long start = System.nanoTime();
+                int failures = verifier.verifyArchive(archive, (n, report) -> System.out.println(arg + " game " + n + ": " + report));
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                System.out.println(arg + ": " + archive.size() + " games, " + failures + " failed, " + millis + " ms");
+            }
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package product;
+
+import java.util.Arrays;
+
+// Headless SOS rules engine: board state, move application, scoring and the Simple/General turn rules.
+// It has no JavaFX dependency, so whole games can be played without starting the FX toolkit.
+public class SOSEngine {
+
+    // Cell contents
+    public static final int EMPTY = BitBoard.EMPTY;
+    public static final int S = BitBoard.S;
+    public static final int O = BitBoard.O;
+
+    // Player indices
+    public static final int BLUE = 0;
+    public static final int RED = 1;
+
+    // Board sizes a game, record or archive may have
+    public static final int MIN_BOARD_SIZE = 3;
+    public static final int MAX_BOARD_SIZE = 256;
+
+    // Returned by makeMove when a move is rejected
+    public static final int INVALID_MOVE = -1;
+
+    // Enum for game mode
+    public enum Mode {
+        SIMPLE,
+        GENERAL
+    }
+
+    // Enum for what happens after a placement has been scored
+    public enum Outcome {
+        EXTRA_TURN,
+        SWITCH_PLAYER,
+        BLUE_WINS,
+        RED_WINS,
+        DRAW
+    }
+
+    // Listener notified for every scored sequence (views use it to draw lines)
+    public interface ScoreListener {
+        void onSequenceScored(int startRow, int startCol, int endRow, int endCol, int player);
+
+        // Called for each line taken back by undoMove, most recently scored first
+        default void onSequenceUnscored(int startRow, int startCol, int endRow, int endCol, int player) {
+        }
+    }
+
+    // Saved position (cells, scored lines with their owners, scores, turn and result), see snapshot()
+    public static final class Snapshot {
+        private final byte[] cells;
+        private final int[] lines; // Scored lines in scoring order, encoded like the undo line stack
+        private final int blueScore;
+        private final int redScore;
+        private final int currentPlayer;
+        private final Outcome result;
+
+        private Snapshot(byte[] cells, int[] lines, int blueScore, int redScore, int currentPlayer, Outcome result) {
+            this.cells = cells;
+            this.lines = lines;
+            this.blueScore = blueScore;
+            this.redScore = redScore;
+            this.currentPlayer = currentPlayer;
+            this.result = result;
+        }
+    }
+
+    // Undo record layout: one record of MOVE_RECORD ints per placement
+    private static final int MOVE_RECORD = 4; // cell, letter, lineTop before the move, previous player | result << 1
+
+    private final int size; // Size of the board
+    private final Mode mode; // Simple or General rules
+    private final BitBoard board; // Bit-packed board state
+    private final int[] scores = new int[2]; // Scores indexed by player
+    private int currentPlayer; // Player to move
+    private Outcome result; // Final outcome, null while the game is running
+    private ScoreListener scoreListener;
+
+    // Tracks already scored sequences by start cell and direction
+    private final ScoredLineIndex scoredLines;
+    // Tracks windows that one more letter turns into SOS
+    private final ThreatIndex threats;
+
+    // Undo stacks. A board has at most size^2 placements and 4 * size^2 windows, so neither ever grows.
+    private final int[] moveStack; // MOVE_RECORD ints per placement
+    private final int[] lineStack; // Scored lines: (startCell * 4 + direction) * 2 + player
+    private int moveCount;
+    private int lineTop;
+    private int keptMoves; // Oldest moves not undone since takeKeptMoveCount was last called
+
+    // Constructor initializes an empty board with blue to move
+    public SOSEngine(int size, Mode mode) {
+        this.size = size;
+        this.mode = mode;
+        this.board = new BitBoard(size);
+        this.scoredLines = new ScoredLineIndex(size * size);
+        this.threats = new ThreatIndex(board);
+        this.moveStack = new int[size * size * MOVE_RECORD];
+        this.lineStack = new int[size * size * 4];
+        reset();
+    }
+
+    // Clears the board, scores and scored sequences for a new game
+    public void reset() {
+        board.clear();
+        threats.clear();
+        scores[BLUE] = 0;
+        scores[RED] = 0;
+        currentPlayer = BLUE;
+        result = null;
+        scoredLines.clear();
+        moveCount = 0;
+        lineTop = 0;
+        keptMoves = 0;
+    }
+
+    // Returns an independent copy of the position (board, scores, scored lines, turn and result) without
+    // undo history or listener, for searches that must not disturb the game being shown
+    public SOSEngine copy() {
+        SOSEngine copy = new SOSEngine(size, mode);
+        for (int cell = 0; cell < size * size; cell++) {
+            int letter = board.get(cell);
+            if (letter != EMPTY) copy.placeLetter(cell / size, cell % size, letter);
+        }
+        copy.scoredLines.copyFrom(scoredLines);
+        System.arraycopy(lineStack, 0, copy.lineStack, 0, lineTop);
+        copy.lineTop = lineTop;
+        copy.scores[BLUE] = scores[BLUE];
+        copy.scores[RED] = scores[RED];
+        copy.currentPlayer = currentPlayer;
+        copy.result = result;
+        copy.moveCount = 0; // The placements above are not undoable moves
+        return copy;
+    }
+
+    // Saves the current position. Its size is one byte per cell plus one int per scored line.
+    public Snapshot snapshot() {
+        byte[] cells = new byte[size * size];
+        for (int cell = 0; cell < cells.length; cell++) cells[cell] = (byte) board.get(cell);
+        return new Snapshot(cells, Arrays.copyOf(lineStack, lineTop), scores[BLUE], scores[RED], currentPlayer, result);
+    }
+
+    // Returns to a saved position. Moves made before it can no longer be undone.
+    public void restore(Snapshot snapshot) {
+        reset();
+        for (int cell = 0; cell < snapshot.cells.length; cell++) {
+            if (snapshot.cells[cell] != EMPTY) placeLetter(cell / size, cell % size, snapshot.cells[cell]);
+        }
+        for (int line : snapshot.lines) scoredLines.mark((line >> 1) & 3, line >> 3);
+        System.arraycopy(snapshot.lines, 0, lineStack, 0, snapshot.lines.length);
+        lineTop = snapshot.lines.length;
+        scores[BLUE] = snapshot.blueScore;
+        scores[RED] = snapshot.redScore;
+        currentPlayer = snapshot.currentPlayer;
+        result = snapshot.result;
+        moveCount = 0; // The placements above are not undoable moves
+    }
+
+    // Reports every scored line, oldest first, to a listener (views use it to redraw all lines)
+    public void reportScoredLines(ScoreListener listener) {
+        for (int i = 0; i < lineTop; i++) {
+            int line = lineStack[i];
+            int direction = (line >> 1) & 3;
+            int startCell = line >> 3;
+            int startRow = startCell / size;
+            int startCol = startCell % size;
+            listener.onSequenceScored(startRow, startCol,
+                startRow + 2 * BitBoard.rowStep(direction), startCol + 2 * BitBoard.colStep(direction), line & 1);
+        }
+    }
+
+    // Getters
+    public int getSize() {
+        return size;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public BitBoard getBoard() {
+        return board;
+    }
+
+    public ScoredLineIndex getScoredLines() {
+        return scoredLines;
+    }
+
+    public ThreatIndex getThreats() {
+        return threats;
+    }
+
+    public int getCell(int row, int col) {
+        return board.get(row, col);
+    }
+
+    // Zobrist key of the position: board contents, side to move and both scores
+    public long getHash() {
+        return ZobristHash.positionKey(board.getHash(), currentPlayer, scores[BLUE], scores[RED]);
+    }
+
+    public int getScore(int player) {
+        return scores[player];
+    }
+
+    public int getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    public boolean isGameOver() {
+        return result != null;
+    }
+
+    // Returns the final outcome (BLUE_WINS, RED_WINS or DRAW), or null while the game is running
+    public Outcome getResult() {
+        return result;
+    }
+
+    public void setScoreListener(ScoreListener scoreListener) {
+        this.scoreListener = scoreListener;
+    }
+
+    // Sets the player to move (used by views that keep their own turn state)
+    public void setCurrentPlayer(int player) {
+        this.currentPlayer = player;
+    }
+
+    public void switchPlayer() {
+        currentPlayer = 1 - currentPlayer;
+    }
+
+    // Converts between the "S"/"O" strings used by the UI and recorder and cell codes
+    public static int letterCode(String letter) {
+        if ("S".equals(letter)) return S;
+        if ("O".equals(letter)) return O;
+        return EMPTY;
+    }
+
+    public static String letterString(int code) {
+        return code == S ? "S" : code == O ? "O" : "";
+    }
+
+    // Checks if a move is valid by verifying the position is on the board and the cell is empty
+    public boolean isValidMove(int row, int col) {
+        return isValidIndex(row, col) && board.isEmpty(board.cellIndex(row, col));
+    }
+
+    // Places a letter without scoring or turn handling, if the cell is empty.
+    // The placement (and any lines scored for it afterwards) can be taken back with undoMove.
+    public void placeLetter(int row, int col, int letter) {
+        if (isValidMove(row, col)) {
+            int cell = board.cellIndex(row, col);
+
+            // Push the undo record before changing anything
+            int record = moveCount++ * MOVE_RECORD;
+            moveStack[record] = cell;
+            moveStack[record + 1] = letter;
+            moveStack[record + 2] = lineTop;
+            moveStack[record + 3] = currentPlayer | ((result == null ? 0 : result.ordinal() + 1) << 1);
+
+            threats.beforeChange(cell);
+            board.set(cell, letter);
+            threats.afterChange(cell);
+        }
+    }
+
+    // Checks if the board is full
+    public boolean isBoardFull() {
+        return board.isFull();
+    }
+
+    // Plays a full move for the current player: places the letter, scores it and applies the mode rules.
+    // Returns the number of SOS sequences scored, or INVALID_MOVE if the move was rejected.
+    public int makeMove(int row, int col, int letter) {
+        if (isGameOver() || (letter != S && letter != O) || !isValidMove(row, col)) return INVALID_MOVE;
+
+        placeLetter(row, col, letter);
+        int scored = scorePlacement(row, col, currentPlayer);
+
+        Outcome outcome = resolveTurn(mode, currentPlayer, scored > 0, isBoardFull(), scores[BLUE], scores[RED]);
+        if (outcome == Outcome.SWITCH_PLAYER) switchPlayer();
+        else if (outcome != Outcome.EXTRA_TURN) result = outcome;
+
+        return scored;
+    }
+
+    // Takes back the last placement: the letter, every line it scored, the score increase, the turn change
+    // and any game result. Returns false if there is nothing to undo.
+    public boolean undoMove() {
+        if (moveCount == 0) return false;
+
+        int record = --moveCount * MOVE_RECORD;
+        if (moveCount < keptMoves) keptMoves = moveCount;
+        int cell = moveStack[record];
+        int linesBefore = moveStack[record + 2];
+        int state = moveStack[record + 3];
+
+        // Unscore lines in reverse order
+        while (lineTop > linesBefore) {
+            int line = lineStack[--lineTop];
+            int player = line & 1;
+            int direction = (line >> 1) & 3;
+            int startCell = line >> 3;
+            scoredLines.unmark(direction, startCell);
+            scores[player]--;
+
+            if (scoreListener != null) {
+                int startRow = startCell / size;
+                int startCol = startCell % size;
+                scoreListener.onSequenceUnscored(startRow, startCol,
+                    startRow + 2 * BitBoard.rowStep(direction), startCol + 2 * BitBoard.colStep(direction), player);
+            }
+        }
+
+        // Remove the letter
+        threats.beforeChange(cell);
+        board.remove(cell);
+        threats.afterChange(cell);
+
+        currentPlayer = state & 1;
+        int resultCode = state >> 1;
+        result = resultCode == 0 ? null : Outcome.values()[resultCode - 1];
+        return true;
+    }
+
+    // Returns how many of the oldest placements have not been undone since the last call, and counts from now.
+    // A copy of the game kept elsewhere catches up by undoing its later placements and replaying the newer
+    // ones, so keeping it in step costs the moves that changed rather than the size of the board.
+    public int takeKeptMoveCount() {
+        int kept = Math.min(keptMoves, moveCount);
+        keptMoves = moveCount;
+        return kept;
+    }
+
+    // Number of placements that can be undone
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    // Cell and letter of an undoable placement (0 is the oldest)
+    public int getMoveCell(int index) {
+        return moveStack[index * MOVE_RECORD];
+    }
+
+    public int getMoveLetter(int index) {
+        return moveStack[index * MOVE_RECORD + 1];
+    }
+
+    // Player who made an undoable placement
+    public int getMovePlayer(int index) {
+        return moveStack[index * MOVE_RECORD + 3] & 1;
+    }
+
+    // Decides what happens after a placement under the given mode's rules
+    public static Outcome resolveTurn(Mode mode, int player, boolean didPlayerScore, boolean boardFull, int blueScore, int redScore) {
+        if (mode == Mode.SIMPLE) {
+            // First SOS wins, a full board without one is a draw
+            if (didPlayerScore) return player == BLUE ? Outcome.BLUE_WINS : Outcome.RED_WINS;
+            if (boardFull) return Outcome.DRAW;
+            return Outcome.SWITCH_PLAYER;
+        }
+
+        // General: highest score on a full board wins, scoring grants another move
+        if (boardFull) {
+            if (blueScore > redScore) return Outcome.BLUE_WINS;
+            if (blueScore < redScore) return Outcome.RED_WINS;
+            return Outcome.DRAW;
+        }
+        return didPlayerScore ? Outcome.EXTRA_TURN : Outcome.SWITCH_PLAYER;
+    }
+
+    // Scores every new SOS through the placed cell for the given player. Returns the number scored.
+    // Only the windows containing the cell are checked: an O can only be the middle of a window and an S
+    // only an end, so at most 8 windows are inspected and nothing is allocated unless a line is scored.
+    public int scorePlacement(int row, int col, int player) {
+        int letter = getCell(row, col);
+        int scored = 0;
+
+        // Even if scored, it must still check the other directions
+        for (int direction = BitBoard.ROW; direction <= BitBoard.SECONDARY_DIAGONAL; direction++) {
+            int dr = BitBoard.rowStep(direction);
+            int dc = BitBoard.colStep(direction);
+            if (letter == O) {
+                scored += scoreWindow(direction, row - dr, col - dc, player);
+            } else if (letter == S) {
+                scored += scoreWindow(direction, row, col, player); // Placed S starts the window
+                scored += scoreWindow(direction, row - 2 * dr, col - 2 * dc, player); // Placed S ends the window
+            }
+        }
+
+        scores[player] += scored;
+        return scored;
+    }
+
+    // Verifies if a given row and column are within board bounds
+    private boolean isValidIndex(int row, int col) {
+        return row >= 0 && row < size && col >= 0 && col < size;
+    }
+
+    // Scores the window starting at (startRow, startCol) in a direction if it is a new SOS. Returns 1 or 0.
+    private int scoreWindow(int direction, int startRow, int startCol, int player) {
+        int dr = BitBoard.rowStep(direction);
+        int dc = BitBoard.colStep(direction);
+        int endRow = startRow + 2 * dr;
+        int endCol = startCol + 2 * dc;
+        if (!isValidIndex(startRow, startCol) || !isValidIndex(endRow, endCol)) return 0;
+
+        int startCell = board.cellIndex(startRow, startCol);
+        if (board.get(startRow, startCol) != S
+                || board.get(startRow + dr, startCol + dc) != O
+                || board.get(endRow, endCol) != S
+                || scoredLines.isScored(direction, startCell)) return 0;
+
+        // Mark the sequence as scored, remember it for undo and notify the listener
+        scoredLines.mark(direction, startCell);
+        lineStack[lineTop++] = (((startCell << 2) | direction) << 1) | player;
+        if (scoreListener != null) scoreListener.onSequenceScored(startRow, startCol, endRow, endCol, player);
+        return 1;
+    }
+}
@@ -8,11 +8,29 @@ import javafx.stage.Stage;
 
 // Responsible for launchinbg game
 public class SOSGameApp extends Application {
+    private GameController gameController;
+
     @Override
     public void start(Stage primaryStage) {
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("SOSGameView.fxml"));
             AnchorPane root = loader.load();
+            gameController = loader.getController();
+
+            // Moves are written off the FX thread in batches; the writer thread is stopped by stop()
+            gameController.getGameRecorder().enableBufferedMode(1024, 64, 250);
+
+            // Archive of every finished game, when a path is given (-Dsos.archive=gameArchive.bin)
+            String archivePath = System.getProperty("sos.archive");
+            if (archivePath != null) gameController.getGameRecorder().enableArchive(archivePath);
+
+            // Crash-safe journal of the moves, forced to disk in groups, when a path is given (-Dsos.journal=gameJournal.log)
+            String journalPath = System.getProperty("sos.journal");
+            if (journalPath != null) gameController.getGameRecorder().enableJournal(journalPath, 200);
+
+            // Perfect endgames with a tablebase kept across runs, when a directory is given (-Dsos.tablebase=tablebase)
+            String tablebasePath = System.getProperty("sos.tablebase");
+            if (tablebasePath != null) gameController.enableTablebase(tablebasePath);
             Scene scene = new Scene(root);
             primaryStage.setScene(scene);
             primaryStage.setTitle("SOS Game");
@@ -21,6 +39,13 @@ public class SOSGameApp extends Application {
         catch (Exception e) { e.printStackTrace(); }
     }
 
+    // Makes sure buffered game moves reach the record file, the journal is closed, and solved endgames reach
+    // their tablebase before the app exits
+    @Override
+    public void stop() {
+        if (gameController != null) gameController.shutdown();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
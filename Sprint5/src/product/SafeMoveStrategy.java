@@ -0,0 +1,48 @@
+package product;
+
+import java.util.Random;
+
+// Greedy play that does not hand out points: complete the best open SOS if there is one, otherwise play a random
+// move that leaves no window one letter from SOS for the opponent, and if every move does, one that leaves the
+// fewest. Moves are judged by the threat index's danger map, so each costs one array read; the scan starts at a
+// random free cell and stops at the first safe move, which early in a game is found almost at once.
+public class SafeMoveStrategy implements MoveStrategy {
+
+    private final Random random = new Random();
+
+    @Override
+    public int chooseMove(SOSEngine engine) {
+        if (engine.isGameOver() || engine.isBoardFull()) return -1;
+
+        // Completing move that scores the most
+        ThreatIndex threats = engine.getThreats();
+        int bestMove = -1;
+        for (int i = 0; i < threats.size(); i++) {
+            int move = threats.getMove(i);
+            if (bestMove < 0 || completions(threats, move) > completions(threats, bestMove)) bestMove = move;
+        }
+        if (bestMove >= 0) return bestMove;
+
+        // Safe move, or the least damaging one
+        FreeCellSet freeCells = engine.getBoard().getFreeCells();
+        int start = random.nextInt(freeCells.size());
+        int fewestDangers = Integer.MAX_VALUE;
+        for (int i = 0; i < freeCells.size(); i++) {
+            int cell = freeCells.get((start + i) % freeCells.size());
+            int letter = random.nextBoolean() ? BitBoard.S : BitBoard.O;
+            for (int tried = 0; tried < 2; tried++, letter = BitBoard.S + BitBoard.O - letter) {
+                int dangers = threats.dangers(cell, letter);
+                if (dangers == 0) return ThreatIndex.moveKey(cell, letter);
+                if (dangers < fewestDangers) {
+                    fewestDangers = dangers;
+                    bestMove = ThreatIndex.moveKey(cell, letter);
+                }
+            }
+        }
+        return bestMove;
+    }
+
+    private static int completions(ThreatIndex threats, int move) {
+        return threats.completions(ThreatIndex.moveCell(move), ThreatIndex.moveLetter(move));
+    }
+}
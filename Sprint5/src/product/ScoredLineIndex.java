@@ -0,0 +1,56 @@
+package product;
+
+import java.util.Arrays;
+
+// Direct-indexed set of scored SOS lines. A line is keyed by its start cell and direction
+// (BitBoard.ROW .. BitBoard.SECONDARY_DIAGONAL), so lookup, insert and removal are O(1).
+public class ScoredLineIndex {
+
+    private final long[][] scored; // One bit set of start cells per direction
+    private int count; // Number of scored lines
+
+    // Constructor initializes an empty index for a board with cellCount cells
+    public ScoredLineIndex(int cellCount) {
+        this.scored = new long[4][(cellCount + 63) >>> 6];
+    }
+
+    // Checks if the line starting at startCell in the given direction has already been scored
+    public boolean isScored(int direction, int startCell) {
+        return (scored[direction][startCell >>> 6] & (1L << startCell)) != 0;
+    }
+
+    // Marks a line as scored
+    public void mark(int direction, int startCell) {
+        scored[direction][startCell >>> 6] |= 1L << startCell;
+        count++;
+    }
+
+    // Removes a scored line (used when a move is undone)
+    public void unmark(int direction, int startCell) {
+        scored[direction][startCell >>> 6] &= ~(1L << startCell);
+        count--;
+    }
+
+    // Returns the first scored start cell in a direction at or after from, or -1 if none
+    public int nextScored(int direction, int from) {
+        return BitBoard.nextSetBit(scored[direction], from);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    // Replaces the contents with those of another index of the same size
+    public void copyFrom(ScoredLineIndex other) {
+        for (int direction = 0; direction < scored.length; direction++) {
+            System.arraycopy(other.scored[direction], 0, scored[direction], 0, scored[direction].length);
+        }
+        count = other.count;
+    }
+
+    // Removes every scored line for a new game
+    public void clear() {
+        for (long[] bits : scored) Arrays.fill(bits, 0L);
+        count = 0;
+    }
+}
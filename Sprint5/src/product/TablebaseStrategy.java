@@ -0,0 +1,152 @@
+package product;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+// Perfect play for endgames on boards up to EndgameTablebase.MAX_SIZE. Once few enough cells are free, the position
+// is solved exactly by a memoized search of every reachable position (no pruning, so every stored value is exact)
+// and the best move is read from the tablebase. Positions are keyed by canonical hash, so the 8 symmetric versions
+// of a position share one entry, whose move is stored in the canonical orientation. Solved positions are kept for
+// later games and can be saved to one compact file per board size and mode, so a position is only ever solved once.
+// Earlier moves, and boards above the size limit, are left to a fallback strategy.
+public class TablebaseStrategy implements MoveStrategy {
+
+    public static final int DEFAULT_SOLVE_FREE_CELLS = 8; // At most 3^8 letter patterns to solve, a few hundred milliseconds at worst
+
+    private final Path directory; // Where tablebase files are kept, null to keep them in memory only
+    private final int solveFreeCells;
+    private final MoveStrategy fallback;
+    private final Map<Integer, EndgameTablebase> tables = new HashMap<>(); // By size * 2 + mode
+
+    // Solve state, set for every solve
+    private SOSEngine engine;
+    private EndgameTablebase table;
+    private boolean aborted; // Set when the thread is interrupted; positions solved so far are kept
+
+    // Constructor takes the tablebase directory (or null), the number of free cells from which positions are
+    // solved, and the strategy for positions with more free cells or larger boards
+    public TablebaseStrategy(Path directory, int solveFreeCells, MoveStrategy fallback) {
+        this.directory = directory;
+        this.solveFreeCells = solveFreeCells;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public synchronized int chooseMove(SOSEngine game) {
+        if (game.isGameOver() || game.isBoardFull()) return -1;
+        if (!canSolve(game)) return fallback.chooseMove(game);
+        int entry = solve(game);
+        return entry == EndgameTablebase.MISSING ? -1 : EndgameTablebase.move(entry);
+    }
+
+    // True if the position is small enough to be solved
+    public boolean canSolve(SOSEngine game) {
+        return game.getSize() <= EndgameTablebase.MAX_SIZE && game.getBoard().getFreeCells().size() <= solveFreeCells;
+    }
+
+    // Exact value of a position that is not over, for the side to move (see EndgameTablebase.value)
+    public synchronized int getValue(SOSEngine game) {
+        return EndgameTablebase.value(solve(game));
+    }
+
+    // Returns the tablebase for a board size and mode, reading it from the directory the first time
+    public synchronized EndgameTablebase getTable(int size, SOSEngine.Mode mode) {
+        return tables.computeIfAbsent(size * 2 + mode.ordinal(), key -> {
+            Path path = tablePath(size, mode);
+            if (path != null && Files.exists(path)) {
+                try {
+                    return EndgameTablebase.load(path, size, mode);
+                } catch (IOException e) {
+                    System.err.println("Error reading tablebase, solving again: " + e.getMessage());
+                }
+            }
+            return new EndgameTablebase(size, mode);
+        });
+    }
+
+    // Writes every tablebase with new positions to the directory
+    public synchronized void save() throws IOException {
+        if (directory == null) return;
+        Files.createDirectories(directory);
+        for (EndgameTablebase solved : tables.values()) {
+            if (solved.isModified()) solved.save(tablePath(solved.getSize(), solved.getMode()));
+        }
+    }
+
+    // File of the tablebase for a size and mode, e.g. tablebase-4-general.bin
+    private Path tablePath(int size, SOSEngine.Mode mode) {
+        if (directory == null) return null;
+        return directory.resolve("tablebase-" + size + "-" + mode.name().toLowerCase() + ".bin");
+    }
+
+    // Returns the tablebase entry of a position, solving it first if needed, or MISSING if the thread was
+    // interrupted before the solve finished
+    private int solve(SOSEngine game) {
+        table = getTable(game.getSize(), game.getMode());
+        BitBoard board = game.getBoard();
+        long key = board.getCanonicalHash();
+        int entry = table.lookup(key);
+        if (entry == EndgameTablebase.MISSING) {
+            engine = game.copy(); // Solve on a private copy so the game (and its listeners) are never touched
+            aborted = false;
+            solvePosition();
+            engine = null;
+            if (aborted) return EndgameTablebase.MISSING;
+            entry = table.lookup(key);
+        }
+
+        // Turn the stored move back from the canonical orientation to the game's
+        int move = ThreatIndex.transformMove(board, BitBoard.inverseSymmetry(board.getCanonicalSymmetry()), EndgameTablebase.move(entry));
+        return EndgameTablebase.entry(EndgameTablebase.value(entry), move);
+    }
+
+    // Solves the engine's position and every position below it, and returns its value for the side to move.
+    // Values only depend on the letters on the board, so the canonical board hash is the key (as in MinimaxStrategy).
+    private int solvePosition() {
+        BitBoard board = engine.getBoard();
+        int symmetry = board.getCanonicalSymmetry();
+        long key = board.getSymmetryHash(symmetry);
+        int entry = table.lookup(key);
+        if (entry != EndgameTablebase.MISSING) return EndgameTablebase.value(entry);
+        if (Thread.currentThread().isInterrupted()) aborted = true; // The computer move was cancelled
+        if (aborted) return 0;
+
+        int size = engine.getSize();
+        boolean simple = engine.getMode() == SOSEngine.Mode.SIMPLE;
+        FreeCellSet freeCells = engine.getBoard().getFreeCells();
+        int[] cells = new int[freeCells.size()]; // Copied, since moves reorder the free-cell set
+        for (int i = 0; i < cells.length; i++) cells[i] = freeCells.get(i);
+        int best = Integer.MIN_VALUE;
+        int bestMove = -1;
+
+        for (int cell : cells) {
+            for (int letter = BitBoard.S; letter <= BitBoard.O; letter++) {
+                int gained = engine.makeMove(cell / size, cell % size, letter);
+                int value;
+                if (simple) {
+                    if (gained > 0) value = 1;
+                    else if (engine.isGameOver()) value = 0; // Full board without SOS
+                    else value = -solvePosition();
+                } else {
+                    if (engine.isGameOver()) value = gained;
+                    else if (gained > 0) value = gained + solvePosition(); // Same player moves again
+                    else value = -solvePosition();
+                }
+                engine.undoMove();
+                if (aborted) return 0; // Unfinished: nothing is stored
+
+                if (value > best) {
+                    best = value;
+                    bestMove = ThreatIndex.moveKey(cell, letter);
+                }
+            }
+            if (simple && best == 1) break; // A win cannot be improved on
+        }
+
+        table.store(key, best, ThreatIndex.transformMove(board, symmetry, bestMove));
+        return best;
+    }
+}
@@ -0,0 +1,29 @@
+package product;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+// Converts the text game record written by GameRecorder (BoardSize,5 / GameMode,Simple / Blue,HUMAN /
+// Red,COMPUTER / blank line / Blue,S,1,1 ...) into a GameRecord and the binary format
+public class TextRecordConverter {
+
+    // Parses the lines of a text record. Throws an IOException if the metadata or a move is malformed.
+    public static GameRecord parse(List<String> lines) throws IOException {
+        try (TextRecordReader reader = new TextRecordReader(new StringReader(String.join("\n", lines)))) {
+            return reader.readAll();
+        }
+    }
+
+    // Streams a text record file into a binary record file
+    public static void convert(String textPath, String binaryPath) throws IOException {
+        GameRecord record;
+        try (TextRecordReader reader = TextRecordReader.open(textPath)) {
+            record = reader.readAll();
+        }
+        try (BinaryRecordWriter writer = new BinaryRecordWriter(new FileOutputStream(binaryPath))) {
+            writer.write(record);
+        }
+    }
+}
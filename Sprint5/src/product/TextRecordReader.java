@@ -0,0 +1,222 @@
+package product;
+
+import java.io.Closeable;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+// Streaming reader for the text game record written by GameRecorder. The metadata is read when the reader
+// is created; moves are then parsed one at a time by next() straight from a character buffer into primitive
+// fields, without a String or String[] per line, so a recording of any length is read in constant memory.
+public class TextRecordReader implements Closeable {
+    private final Reader in;
+    private final char[] buffer = new char[8192]; // Characters read from in
+    private int bufferPos;
+    private int bufferLimit;
+    private char[] line = new char[64]; // Current line, without its line break
+    private int lineLength;
+    private int lineNumber;
+
+    // Metadata
+    private final int size;
+    private final SOSEngine.Mode mode;
+    private final Player.PlayerType blueType;
+    private final Player.PlayerType redType;
+
+    // Current move
+    private int player;
+    private int letter;
+    private int row;
+    private int col;
+    private int moveCount; // Moves read so far
+
+    // Constructor reads the metadata lines (BoardSize,5 / GameMode,Simple / Blue,HUMAN / Red,COMPUTER).
+    // Throws an IOException if they are missing or malformed.
+    public TextRecordReader(Reader in) throws IOException {
+        this.in = in;
+        int value = metadataValue("BoardSize");
+        size = parseInt(value, lineLength);
+        value = metadataValue("GameMode");
+        mode = matches(value, "Simple") ? SOSEngine.Mode.SIMPLE : SOSEngine.Mode.GENERAL;
+        blueType = playerType(metadataValue("Blue"));
+        redType = playerType(metadataValue("Red"));
+    }
+
+    // Opens a text record file
+    public static TextRecordReader open(String filePath) throws IOException {
+        FileReader reader = new FileReader(filePath);
+        try {
+            return new TextRecordReader(reader);
+        } catch (IOException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    // Getters for the metadata
+    public int getSize() {
+        return size;
+    }
+
+    public SOSEngine.Mode getMode() {
+        return mode;
+    }
+
+    public Player.PlayerType getBlueType() {
+        return blueType;
+    }
+
+    public Player.PlayerType getRedType() {
+        return redType;
+    }
+
+    // Advances to the next move (color,letter,row,col). Returns false at the end of the record.
+    // Throws an IOException for a malformed move.
+    public boolean next() throws IOException {
+        do {
+            if (!readLine()) return false;
+        } while (lineLength == 0); // Skip the separator and any blank lines
+
+        // Player color
+        int pos;
+        if (matchesField(0, "Blue")) {
+            player = SOSEngine.BLUE;
+            pos = 5;
+        } else if (matchesField(0, "Red")) {
+            player = SOSEngine.RED;
+            pos = 4;
+        } else throw malformedMove();
+
+        // Letter
+        if (pos + 1 >= lineLength || line[pos + 1] != ',') throw malformedMove();
+        letter = line[pos] == 'S' ? SOSEngine.S : line[pos] == 'O' ? SOSEngine.O : SOSEngine.EMPTY;
+        if (letter == SOSEngine.EMPTY) throw malformedMove();
+        pos += 2;
+
+        // Row and column
+        int comma = pos;
+        while (comma < lineLength && line[comma] != ',') comma++;
+        if (comma == lineLength) throw malformedMove();
+        row = parseInt(pos, comma);
+        col = parseInt(comma + 1, lineLength);
+        if (row < 0 || row >= size || col < 0 || col >= size) throw malformedMove();
+
+        moveCount++;
+        return true;
+    }
+
+    // Fields of the current move
+    public int getPlayer() {
+        return player;
+    }
+
+    public int getLetter() {
+        return letter;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public int getCol() {
+        return col;
+    }
+
+    // Number of moves read so far
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    // Reads the remaining moves into a GameRecord
+    public GameRecord readAll() throws IOException {
+        GameRecord record = new GameRecord(size, mode, blueType, redType, 0L);
+        while (next()) record.addMove(player, row, col, letter);
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // Reads the next metadata line, checks its key and returns the index where its value starts
+    private int metadataValue(String key) throws IOException {
+        if (!readLine()) throw new IOException("Text record is missing its metadata");
+        if (!matchesField(0, key)) {
+            throw new IOException("Malformed metadata on line " + lineNumber + ": " + new String(line, 0, lineLength));
+        }
+        return key.length() + 1;
+    }
+
+    private Player.PlayerType playerType(int value) throws IOException {
+        if (matches(value, "HUMAN")) return Player.PlayerType.HUMAN;
+        if (matches(value, "COMPUTER")) return Player.PlayerType.COMPUTER;
+        throw new IOException("Unknown player type on line " + lineNumber + ": " + new String(line, 0, lineLength));
+    }
+
+    // True if the line holds text followed by a comma at start
+    private boolean matchesField(int start, String text) {
+        return start + text.length() < lineLength && line[start + text.length()] == ',' && regionMatches(start, text);
+    }
+
+    // True if the rest of the line from start is exactly text
+    private boolean matches(int start, String text) {
+        return lineLength - start == text.length() && regionMatches(start, text);
+    }
+
+    private boolean regionMatches(int start, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (line[start + i] != text.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    // Parses a non-negative decimal number from line[start, end)
+    private int parseInt(int start, int end) throws IOException {
+        if (start >= end || end - start > 9) throw malformedNumber();
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = line[i];
+            if (c < '0' || c > '9') throw malformedNumber();
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private IOException malformedMove() {
+        return new IOException("Malformed move on line " + lineNumber + ": " + new String(line, 0, lineLength));
+    }
+
+    private IOException malformedNumber() {
+        return new IOException("Malformed number on line " + lineNumber + ": " + new String(line, 0, lineLength));
+    }
+
+    // Reads the next line into line[0, lineLength), dropping \n or \r\n. Returns false at the end of input.
+    private boolean readLine() throws IOException {
+        lineLength = 0;
+        int c = read();
+        if (c < 0) return false;
+
+        while (c >= 0 && c != '\n') {
+            if (lineLength == line.length) line = Arrays.copyOf(line, line.length * 2);
+            line[lineLength++] = (char) c;
+            c = read();
+        }
+        if (lineLength > 0 && line[lineLength - 1] == '\r') lineLength--;
+        lineNumber++;
+        return true;
+    }
+
+    private int read() throws IOException {
+        if (bufferPos == bufferLimit) {
+            bufferLimit = in.read(buffer, 0, buffer.length);
+            bufferPos = 0;
+            if (bufferLimit <= 0) {
+                bufferLimit = 0;
+                return -1;
+            }
+        }
+        return buffer[bufferPos++];
+    }
+}
@@ -0,0 +1,166 @@
+package product;
+
+import java.util.Arrays;
+
+// Live index of "one move to SOS" windows (_OS, S_S and SO_). For every completing move (cell plus letter)
+// it counts how many SOS that move would score, and keeps the moves with a non-zero count in a dense set
+// so a completing move can be fetched in O(1). It also keeps a danger map: per move, how many windows the move
+// would leave one letter from SOS, i.e. how many SOS it hands the opponent. A placement only touches the 12 windows
+// containing its cell, for both.
+public class ThreatIndex {
+
+    private final BitBoard board;
+    private final int size;
+    private final int[] completions; // Per move key: number of open windows the move completes
+    private final int[] moves; // Move keys with completions > 0 in positions 0 .. moveCount - 1
+    private final int[] positions; // Position of each move key in moves, or -1
+    private final int[] dangers; // Per move key: number of windows the move would leave one letter from SOS
+    private int moveCount;
+    private int openWindows; // Windows one letter away from SOS
+
+    // Constructor initializes an empty index over the given (empty) board
+    public ThreatIndex(BitBoard board) {
+        this.board = board;
+        this.size = board.getSize();
+        int keys = board.getCellCount() * 2;
+        this.completions = new int[keys];
+        this.moves = new int[keys];
+        this.positions = new int[keys];
+        this.dangers = new int[keys];
+        clear();
+    }
+
+    // Encodes a move as cell * 2 plus 0 for S or 1 for O
+    public static int moveKey(int cell, int letter) {
+        return (cell << 1) | (letter == BitBoard.O ? 1 : 0);
+    }
+
+    public static int moveCell(int moveKey) {
+        return moveKey >> 1;
+    }
+
+    public static int moveLetter(int moveKey) {
+        return (moveKey & 1) == 0 ? BitBoard.S : BitBoard.O;
+    }
+
+    // Applies a board symmetry to a move (see BitBoard.transformCell); -1 stays -1
+    public static int transformMove(BitBoard board, int symmetry, int moveKey) {
+        if (moveKey < 0) return moveKey;
+        return (board.transformCell(symmetry, moveCell(moveKey)) << 1) | (moveKey & 1);
+    }
+
+    // Removes every threat (the board must be empty)
+    public void clear() {
+        Arrays.fill(completions, 0);
+        Arrays.fill(positions, -1);
+        Arrays.fill(dangers, 0);
+        moveCount = 0;
+        openWindows = 0;
+    }
+
+    // Must be called before a cell changes, to withdraw the windows through it
+    public void beforeChange(int cell) {
+        updateWindowsAround(cell, -1);
+    }
+
+    // Must be called after a cell changes, to add the windows through it again
+    public void afterChange(int cell) {
+        updateWindowsAround(cell, 1);
+    }
+
+    // Number of distinct completing moves
+    public int size() {
+        return moveCount;
+    }
+
+    public boolean isEmpty() {
+        return moveCount == 0;
+    }
+
+    // Number of windows one letter away from SOS (a move completing two windows counts twice)
+    public int getOpenWindowCount() {
+        return openWindows;
+    }
+
+    // Returns the completing move key stored at a position (0 .. size - 1)
+    public int getMove(int position) {
+        return moves[position];
+    }
+
+    // Returns any completing move key, or -1 if no window is one move from SOS
+    public int firstMove() {
+        return moveCount == 0 ? -1 : moves[0];
+    }
+
+    // Returns how many SOS playing letter on cell would score right now
+    public int completions(int cell, int letter) {
+        return completions[moveKey(cell, letter)];
+    }
+
+    // Returns how many windows playing letter on cell would leave one letter from SOS for the opponent
+    public int dangers(int cell, int letter) {
+        return dangers[moveKey(cell, letter)];
+    }
+
+    // Re-evaluates every window that contains the cell
+    private void updateWindowsAround(int cell, int delta) {
+        int row = cell / size;
+        int col = cell % size;
+        for (int direction = BitBoard.ROW; direction <= BitBoard.SECONDARY_DIAGONAL; direction++) {
+            int dr = BitBoard.rowStep(direction);
+            int dc = BitBoard.colStep(direction);
+            for (int offset = 0; offset < 3; offset++) {
+                int startRow = row - offset * dr;
+                int startCol = col - offset * dc;
+                int endRow = startRow + 2 * dr;
+                int endCol = startCol + 2 * dc;
+                if (startRow >= 0 && startCol >= 0 && startCol < size && endRow < size && endCol >= 0 && endCol < size) {
+                    updateWindow(startRow * size + startCol, board.step(direction), delta);
+                }
+            }
+        }
+    }
+
+    // Adds or withdraws a single window if it is one move from SOS
+    private void updateWindow(int start, int step, int delta) {
+        int first = board.get(start);
+        int second = board.get(start + step);
+        int third = board.get(start + 2 * step);
+        updateDangers(start, step, first, second, third, delta);
+
+        int key;
+        if (first == BitBoard.EMPTY && second == BitBoard.O && third == BitBoard.S) key = moveKey(start, BitBoard.S);
+        else if (first == BitBoard.S && second == BitBoard.EMPTY && third == BitBoard.S) key = moveKey(start + step, BitBoard.O);
+        else if (first == BitBoard.S && second == BitBoard.O && third == BitBoard.EMPTY) key = moveKey(start + 2 * step, BitBoard.S);
+        else return;
+
+        completions[key] += delta;
+        openWindows += delta;
+        if (completions[key] == 1 && delta > 0) addMove(key);
+        else if (completions[key] == 0) removeMove(key);
+    }
+
+    // Adds or withdraws the dangers of a window holding one letter in its SOS place (S at an end, O in the
+    // middle) and two empty cells: the SOS letter on either empty cell leaves it one move from SOS
+    private void updateDangers(int start, int step, int first, int second, int third, int delta) {
+        int empty = (first == BitBoard.EMPTY ? 1 : 0) + (second == BitBoard.EMPTY ? 1 : 0) + (third == BitBoard.EMPTY ? 1 : 0);
+        if (empty != 2 || first == BitBoard.O || second == BitBoard.S || third == BitBoard.O) return;
+
+        if (first == BitBoard.EMPTY) dangers[moveKey(start, BitBoard.S)] += delta;
+        if (second == BitBoard.EMPTY) dangers[moveKey(start + step, BitBoard.O)] += delta;
+        if (third == BitBoard.EMPTY) dangers[moveKey(start + 2 * step, BitBoard.S)] += delta;
+    }
+
+    private void addMove(int key) {
+        moves[moveCount] = key;
+        positions[key] = moveCount++;
+    }
+
+    private void removeMove(int key) {
+        int position = positions[key];
+        int last = moves[--moveCount];
+        moves[position] = last;
+        positions[last] = position;
+        positions[key] = -1;
+    }
+}
@@ -0,0 +1,76 @@
+package product;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Fixed-size, lock-free transposition table for game search. Each slot holds (key XOR data) and data,
+// so a slot torn by two concurrent writers fails verification instead of returning a wrong entry.
+// Replacement is depth-preferred: a slot is only overwritten by the same position or an equal or deeper search.
+public class TranspositionTable {
+
+    // Bound types
+    public static final int EXACT = 1;
+    public static final int LOWER = 2; // Value is at least the stored value (search failed high)
+    public static final int UPPER = 3; // Value is at most the stored value (search failed low)
+
+    private final AtomicLongArray keys; // key ^ data per slot
+    private final AtomicLongArray data; // Packed value, depth, bound and move per slot
+    private final int mask;
+
+    // Constructor allocates 2^log2Entries slots
+    public TranspositionTable(int log2Entries) {
+        int entries = 1 << log2Entries;
+        this.keys = new AtomicLongArray(entries);
+        this.data = new AtomicLongArray(entries);
+        this.mask = entries - 1;
+    }
+
+    // Returns the packed entry stored for key, or 0 if there is none
+    public long probe(long key) {
+        int slot = (int) key & mask;
+        long entry = data.get(slot);
+        return (keys.get(slot) ^ entry) == key ? entry : 0L;
+    }
+
+    // Stores a search result unless the slot holds a deeper result for another position
+    public void store(long key, int value, int depth, int bound, int move) {
+        int slot = (int) key & mask;
+        long old = data.get(slot);
+        boolean samePosition = (keys.get(slot) ^ old) == key;
+        if (old != 0 && !samePosition && depth(old) > depth) return;
+
+        long entry = pack(value, depth, bound, move);
+        data.set(slot, entry);
+        keys.set(slot, key ^ entry);
+    }
+
+    // Empties the table
+    public void clear() {
+        for (int slot = 0; slot <= mask; slot++) {
+            data.set(slot, 0L);
+            keys.set(slot, 0L);
+        }
+    }
+
+    // Packs value (32 bits), depth (8 bits), bound (2 bits) and move + 1 (22 bits); never 0 because bound is 1..3
+    private static long pack(int value, int depth, int bound, int move) {
+        return ((long) value << 32) | ((long) (depth & 0xFF) << 24) | ((long) bound << 22) | ((move + 1) & 0x3FFFFF);
+    }
+
+    // Unpacking helpers for probe results
+    public static int value(long entry) {
+        return (int) (entry >> 32);
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 24) & 0xFF;
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> 22) & 0x3;
+    }
+
+    // Best move found for the position, or -1
+    public static int move(long entry) {
+        return (int) (entry & 0x3FFFFF) - 1;
+    }
+}
@@ -0,0 +1,46 @@
+package product;
+
+// 64-bit Zobrist keys for SOS positions. Keys are derived from a fixed seed with the SplitMix64 finalizer,
+// so they are the same for every board size and every run (hashes can be stored in files).
+public final class ZobristHash {
+
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+    private static final long CELL_STREAM = 0x1F0D3A5C7B9E2468L;
+    private static final long SCORE_STREAM = 0x6A09E667F3BCC909L;
+    private static final long VARIANT_STREAM = 0x3C6EF372FE94F82BL;
+
+    // Key XORed in when red is to move
+    public static final long SIDE_KEY = mix(SEED ^ 0x243F6A8885A308D3L);
+
+    private ZobristHash() {
+    }
+
+    // Key for a letter (S or O) on a cell
+    public static long cellKey(int cell, int letter) {
+        return mix(CELL_STREAM + SEED * (((long) cell << 1) | (letter - 1)));
+    }
+
+    // Key for a player's score value
+    public static long scoreKey(int player, int score) {
+        return mix(SCORE_STREAM + SEED * (((long) score << 1) | player));
+    }
+
+    // Key for a board size and mode. Cell keys only depend on the cell index, so tables shared between games
+    // XOR this in to keep a 3x3 position apart from a 4x4 one, or a Simple one from a General one, with the same letters
+    public static long variantKey(int size, SOSEngine.Mode mode) {
+        return mix(VARIANT_STREAM + SEED * (((long) size << 1) | mode.ordinal()));
+    }
+
+    // Full position key: board contents, side to move and both scores
+    public static long positionKey(long boardHash, int sideToMove, int blueScore, int redScore) {
+        long key = boardHash ^ scoreKey(SOSEngine.BLUE, blueScore) ^ scoreKey(SOSEngine.RED, redScore);
+        return sideToMove == SOSEngine.RED ? key ^ SIDE_KEY : key;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,101 @@
+package test;
+
+import product.BinaryRecordReader;
+import product.BinaryRecordWriter;
+import product.GameRecord;
+import product.Player;
+import product.SOSEngine;
+import product.TextRecordConverter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryRecordTest {
+
+    // Test that records survive a write and read, back to back on one stream
+    @Test
+    public void writeAndRead_testRoundTrip() throws IOException {
+        GameRecord small = new GameRecord(3, SOSEngine.Mode.SIMPLE, Player.PlayerType.HUMAN, Player.PlayerType.COMPUTER, 42L);
+        small.addMove(SOSEngine.BLUE, 0, 0, SOSEngine.S);
+        small.addMove(SOSEngine.RED, 2, 2, SOSEngine.O);
+        GameRecord large = new GameRecord(20, SOSEngine.Mode.GENERAL, Player.PlayerType.COMPUTER, Player.PlayerType.HUMAN, -7L);
+        large.addMove(SOSEngine.RED, 19, 18, SOSEngine.O);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BinaryRecordWriter writer = new BinaryRecordWriter(bytes)) {
+            writer.write(small);
+            writer.write(large);
+        }
+        assertEquals(BinaryRecordWriter.encodedLength(small) + BinaryRecordWriter.encodedLength(large), bytes.size());
+        assertEquals(BinaryRecordWriter.HEADER_BYTES + 2, BinaryRecordWriter.encodedLength(small), "One byte per move on 3x3");
+
+        BinaryRecordReader reader = new BinaryRecordReader(new ByteArrayInputStream(bytes.toByteArray()));
+        GameRecord first = reader.read();
+        assertEquals(3, first.getSize());
+        assertEquals(Player.PlayerType.COMPUTER, first.getRedType());
+        assertEquals(42L, first.getSeed());
+        assertEquals(2, first.getMoveCount());
+        assertEquals(SOSEngine.O, first.getMoveLetter(1));
+        assertEquals(SOSEngine.RED, first.getMovePlayer(1));
+        assertEquals(8, first.getMoveCell(1));
+
+        GameRecord second = reader.read();
+        assertEquals(SOSEngine.Mode.GENERAL, second.getMode());
+        assertEquals(19, second.getMoveRow(0));
+        assertEquals(18, second.getMoveCol(0));
+        assertNull(reader.read(), "No more records");
+    }
+
+    // Test that data without the magic number is rejected
+    @Test
+    public void read_testBadMagic() {
+        BinaryRecordReader reader = new BinaryRecordReader(new ByteArrayInputStream(new byte[BinaryRecordWriter.HEADER_BYTES]));
+        assertThrows(IOException.class, reader::read);
+    }
+
+    // Test that headers with a board size above the limit, or more moves than cells, are rejected
+    @Test
+    public void read_testCorruptHeader() throws IOException {
+        assertThrows(IOException.class, () -> readHeader(65535, Integer.MAX_VALUE).read()); // 65535 * 65535 overflows an int
+        assertThrows(IOException.class, () -> readHeader(300, 1).read());
+        assertThrows(IOException.class, () -> readHeader(3, 10).read());
+        assertEquals(0, readHeader(3, 0).read().getMoveCount());
+    }
+
+    // Reader over a bare header with the given size and move count
+    private static BinaryRecordReader readHeader(int size, int moveCount) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(BinaryRecordWriter.MAGIC);
+        out.writeByte(BinaryRecordWriter.VERSION);
+        out.writeShort(size);
+        out.writeByte(0);
+        out.writeLong(0L);
+        out.writeInt(moveCount);
+        return new BinaryRecordReader(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    // Test converting the text format written by GameRecorder
+    @Test
+    public void parse_testTextRecord() throws IOException {
+        GameRecord record = TextRecordConverter.parse(List.of(
+            "BoardSize,5", "GameMode,General", "Blue,HUMAN", "Red,COMPUTER", "",
+            "Blue,S,0,0", "Red,O,0,1"));
+
+        assertEquals(5, record.getSize());
+        assertEquals(SOSEngine.Mode.GENERAL, record.getMode());
+        assertEquals(Player.PlayerType.HUMAN, record.getBlueType());
+        assertEquals(2, record.getMoveCount());
+        assertEquals(SOSEngine.RED, record.getMovePlayer(1));
+        assertEquals(1, record.getMoveCell(1));
+
+        assertThrows(IOException.class, () -> TextRecordConverter.parse(List.of(
+            "BoardSize,5", "GameMode,Simple", "Blue,HUMAN", "Red,HUMAN", "", "Blue,X,0,0")));
+    }
+}
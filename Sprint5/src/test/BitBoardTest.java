@@ -0,0 +1,99 @@
+package test;
+
+import product.BitBoard;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BitBoardTest {
+
+    // Test placing, reading and removing letters
+    @Test
+    public void setAndRemove_test() {
+        BitBoard board = new BitBoard(3);
+        board.set(board.cellIndex(1, 2), BitBoard.O);
+
+        assertEquals(BitBoard.O, board.get(1, 2));
+        assertFalse(board.isEmpty(board.cellIndex(1, 2)));
+        assertEquals(1, board.getFilledCount());
+
+        board.remove(board.cellIndex(1, 2));
+        assertEquals(BitBoard.EMPTY, board.get(1, 2));
+        assertEquals(0, board.getFilledCount());
+    }
+
+    // Test that a full board is detected
+    @Test
+    public void isFull_test() {
+        BitBoard board = new BitBoard(3);
+        for (int cell = 0; cell < 9; cell++) {
+            assertFalse(board.isFull(), "Board should not be full yet");
+            board.set(cell, BitBoard.S);
+        }
+        assertTrue(board.isFull(), "Board should be full");
+    }
+
+    // Test pattern search in every direction, including windows that cross a 64-bit word boundary
+    @Test
+    public void findPattern_testAllDirections() {
+        BitBoard board = new BitBoard(10);
+        long[] matches = board.newCellSet();
+
+        // Vertical S_S in column 3 starting at row 5 (cells 53, 63, 73)
+        board.set(board.cellIndex(5, 3), BitBoard.S);
+        board.set(board.cellIndex(7, 3), BitBoard.S);
+        board.findPattern(BitBoard.COLUMN, BitBoard.S, BitBoard.EMPTY, BitBoard.S, matches);
+        assertEquals(53, BitBoard.nextSetBit(matches, 0));
+
+        // Secondary diagonal SO_ from (0, 9)
+        board.set(board.cellIndex(0, 9), BitBoard.S);
+        board.set(board.cellIndex(1, 8), BitBoard.O);
+        board.findPattern(BitBoard.SECONDARY_DIAGONAL, BitBoard.S, BitBoard.O, BitBoard.EMPTY, matches);
+        assertEquals(9, BitBoard.nextSetBit(matches, 0));
+
+        // A row must not wrap into the next row
+        board.set(board.cellIndex(2, 9), BitBoard.S);
+        board.set(board.cellIndex(3, 0), BitBoard.O);
+        board.set(board.cellIndex(3, 1), BitBoard.S);
+        board.findPattern(BitBoard.ROW, BitBoard.S, BitBoard.O, BitBoard.S, matches);
+        assertEquals(-1, BitBoard.nextSetBit(matches, 0), "Windows should not wrap across rows");
+    }
+
+    // Test counting every SOS on the board
+    @Test
+    public void countSOS_test() {
+        BitBoard board = new BitBoard(3);
+        board.set(board.cellIndex(0, 0), BitBoard.S);
+        board.set(board.cellIndex(0, 1), BitBoard.O);
+        board.set(board.cellIndex(0, 2), BitBoard.S);
+        board.set(board.cellIndex(1, 1), BitBoard.O);
+        board.set(board.cellIndex(2, 0), BitBoard.S);
+        board.set(board.cellIndex(2, 2), BitBoard.S);
+
+        assertEquals(3, board.countSOS(), "Top row and both diagonals should be SOS");
+    }
+
+    // Test that the incremental symmetry hashes match boards built in each orientation, and share one canonical hash
+    @Test
+    public void getSymmetryHash_testMatchesTransformedBoard() {
+        BitBoard board = new BitBoard(5);
+        int[][] letters = {{0, 1, BitBoard.S}, {2, 4, BitBoard.O}, {3, 0, BitBoard.S}, {4, 3, BitBoard.O}};
+        for (int[] letter : letters) board.set(board.cellIndex(letter[0], letter[1]), letter[2]);
+
+        for (int symmetry = 0; symmetry < BitBoard.SYMMETRIES; symmetry++) {
+            BitBoard transformed = new BitBoard(5);
+            for (int[] letter : letters) transformed.set(board.transformCell(symmetry, board.cellIndex(letter[0], letter[1])), letter[2]);
+
+            assertEquals(transformed.getHash(), board.getSymmetryHash(symmetry), "Symmetry " + symmetry);
+            assertEquals(board.getCanonicalHash(), transformed.getCanonicalHash(), "Symmetry " + symmetry);
+
+            int inverse = BitBoard.inverseSymmetry(symmetry);
+            for (int cell = 0; cell < 25; cell++) assertEquals(cell, board.transformCell(inverse, board.transformCell(symmetry, cell)));
+        }
+
+        board.remove(board.cellIndex(2, 4));
+        BitBoard other = new BitBoard(5);
+        other.set(other.cellIndex(0, 1), BitBoard.S);
+        assertNotEquals(board.getCanonicalHash(), other.getCanonicalHash(), "Different positions should not share a hash");
+    }
+}
@@ -0,0 +1,103 @@
+package test;
+
+import product.CanvasBoardModel;
+import product.GreedyStrategy;
+import product.MoveStrategy;
+import product.SOSEngine;
+import product.ThreatIndex;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs without a JavaFX toolkit: checks that large boards play correctly and that a move costs the same on any board
+// size, both in the engine and in what the canvas board repaints for it
+public class BoardScalingTest {
+
+    private static final int MOVES = 2000; // Moves timed per game
+    private static final int ROUNDS = 7; // Games per size, the fastest one counts
+
+    // Test that choosing, making and undoing a move takes about as long on a 256x256 board as on a 64x64 board
+    @Test
+    public void makeMove_testTimeFlatAsSizeGrows() {
+        for (int size : new int[]{64, 128, 256}) nanosPerMove(size); // Warm up the JIT
+
+        long small = nanosPerMove(64);
+        long medium = nanosPerMove(128);
+        long large = nanosPerMove(256);
+
+        // A cost that grew with the cell count would be 16 times higher on the large board
+        assertTrue(medium < 4 * small + 2000, "128x128 took " + medium + " ns per move, 64x64 took " + small);
+        assertTrue(large < 4 * small + 2000, "256x256 took " + large + " ns per move, 64x64 took " + small);
+    }
+
+    // Test that a 256x256 game can be played to a full board and undone
+    @Test
+    public void makeMove_testFullLargeBoard() {
+        SOSEngine engine = new SOSEngine(256, SOSEngine.Mode.GENERAL);
+        for (int row = 0; row < 256; row++) {
+            for (int col = 0; col < 256; col++) {
+                assertEquals(0, engine.makeMove(row, col, SOSEngine.S), "S only boards never score");
+            }
+        }
+
+        assertTrue(engine.isBoardFull());
+        assertEquals(SOSEngine.Outcome.DRAW, engine.getResult());
+
+        while (engine.undoMove()) {
+            // Take every move back
+        }
+        assertEquals(256 * 256, engine.getBoard().getFreeCells().size());
+        assertFalse(engine.isGameOver());
+    }
+
+    // Test that repainting a changed cell on a canvas board looks at the same number of lines however many lines
+    // and cells the board has: a 256x256 board full of lines against a 16x16 board with a few
+    @Test
+    public void linesCrossing_testLinesVisitedFlatAsBoardFills() {
+        long small = linesVisitedPerCell(16);
+        long large = linesVisitedPerCell(256);
+
+        assertTrue(large <= 9 * 12, "A one-cell repaint looked at " + large + " lines");
+        assertTrue(large <= small + 12, "256x256 looked at " + large + " lines per repaint, 16x16 looked at " + small);
+    }
+
+    // Best time per move over several games of MOVES greedy moves followed by their undo. Setting up the engine is not timed.
+    private static long nanosPerMove(int size) {
+        MoveStrategy strategy = new GreedyStrategy();
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            SOSEngine engine = new SOSEngine(size, SOSEngine.Mode.GENERAL);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < MOVES; i++) {
+                int move = strategy.chooseMove(engine);
+                int cell = ThreatIndex.moveCell(move);
+                engine.makeMove(cell / size, cell % size, ThreatIndex.moveLetter(move));
+            }
+            while (engine.undoMove()) {
+                // Take every move back
+            }
+            best = Math.min(best, (System.nanoTime() - start) / MOVES);
+        }
+        return best;
+    }
+
+    // Most lines looked at by the repaint of one cell, over every cell of a board whose rows are covered by
+    // lines three cells long
+    private static long linesVisitedPerCell(int size) {
+        CanvasBoardModel model = new CanvasBoardModel(size, 600);
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col + 2 < size; col += 3) model.addLine(row, col, row, col + 2, SOSEngine.BLUE);
+        }
+
+        long most = 0;
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                long before = model.getLinesVisited();
+                assertTrue(model.linesCrossing(row, col, row, col).length > 0 || col >= size - size % 3);
+                most = Math.max(most, model.getLinesVisited() - before);
+            }
+        }
+        return most;
+    }
+}
@@ -0,0 +1,84 @@
+package test;
+
+import product.BufferedMoveWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BufferedMoveWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    // Test that flush waits until every queued line is in the file, in order
+    @Test
+    public void flush_testWritesQueuedLines() throws IOException {
+        Path file = tempDir.resolve("record.txt");
+        BufferedMoveWriter writer = new BufferedMoveWriter(file.toString(), 16, 4, 10_000);
+        for (int i = 0; i < 10; i++) writer.append("Blue,S,0," + i);
+
+        writer.flush();
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(10, lines.size(), "Flush should not return before the queued lines are written");
+        assertEquals("Blue,S,0,9", lines.get(9));
+        writer.close();
+    }
+
+    // Test that close writes the remaining lines and rejects further appends
+    @Test
+    public void close_testDrainsQueue() throws IOException {
+        Path file = tempDir.resolve("record.txt");
+        BufferedMoveWriter writer = new BufferedMoveWriter(file.toString(), 4, 64, 10_000);
+        writer.append("Red,O,1,1");
+        writer.append("Blue,S,2,2");
+
+        writer.close();
+        assertEquals(List.of("Red,O,1,1", "Blue,S,2,2"), Files.readAllLines(file));
+        assertThrows(IllegalStateException.class, () -> writer.append("Red,S,0,0"));
+    }
+
+    // Test that flush reports lines that could not be written, once, instead of returning as if they were
+    @Test
+    public void flush_testReportsWriteError() throws IOException {
+        BufferedMoveWriter writer = new BufferedMoveWriter(tempDir.toString(), 16, 4, 10_000); // A directory cannot be appended to
+        writer.append("Blue,S,0,0");
+
+        assertThrows(IOException.class, writer::flush);
+        writer.flush(); // Already reported, and nothing new was queued
+        writer.close();
+    }
+
+    // Test that a line is either rejected or written when appends race with close, never queued and dropped
+    @Test
+    public void close_testRacingAppends() throws Exception {
+        Path file = tempDir.resolve("record.txt");
+        BufferedMoveWriter writer = new BufferedMoveWriter(file.toString(), 8, 4, 10_000);
+        AtomicInteger accepted = new AtomicInteger();
+        Thread[] appenders = new Thread[4];
+        for (int i = 0; i < appenders.length; i++) {
+            appenders[i] = new Thread(() -> {
+                try {
+                    while (true) {
+                        writer.append("Red,O,1,1");
+                        accepted.incrementAndGet();
+                    }
+                } catch (IllegalStateException e) {
+                    // Closed
+                }
+            });
+            appenders[i].start();
+        }
+
+        Thread.sleep(50);
+        writer.close();
+        for (Thread appender : appenders) appender.join();
+        assertEquals(accepted.get(), Files.readAllLines(file).size(), "Every accepted line should be in the file");
+    }
+}
@@ -0,0 +1,82 @@
+package test;
+
+import product.CanvasBoardModel;
+import product.SOSEngine;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs without a JavaFX toolkit: hit-testing and the regions and lines a canvas board repaints
+public class CanvasBoardModelTest {
+
+    // Test that canvas points map to the cell under them, and points off the board to -1
+    @Test
+    public void cellAt_testMapping() {
+        CanvasBoardModel model = new CanvasBoardModel(20, 600); // 30 pixel cells
+
+        assertEquals(0, model.cellAt(0, 0));
+        assertEquals(0, model.cellAt(29.9, 29.9));
+        assertEquals(1, model.cellAt(30, 0), "A cell starts at its left edge");
+        assertEquals(20, model.cellAt(0, 30), "A row starts at its top edge");
+        assertEquals(2 * 20 + 1, model.cellAt(45, 75));
+        assertEquals(20 * 20 - 1, model.cellAt(599.9, 599.9));
+        assertEquals(-1, model.cellAt(600, 10), "Right of the board");
+        assertEquals(-1, model.cellAt(10, 600), "Below the board");
+        assertEquals(-1, model.cellAt(-0.5, 10), "Left of the board");
+        assertEquals(-1, model.cellAt(10, -0.5), "Above the board");
+    }
+
+    // Test that a line's repaint region is its bounding rectangle, whatever its direction
+    @Test
+    public void lineRegion_testDirections() {
+        CanvasBoardModel model = new CanvasBoardModel(20, 600);
+        int across = model.addLine(5, 7, 5, 9, SOSEngine.BLUE);
+        int down = model.addLine(3, 2, 1, 2, SOSEngine.RED);
+        int diagonal = model.addLine(2, 3, 4, 5, SOSEngine.BLUE);
+        int antiDiagonal = model.addLine(4, 1, 2, 3, SOSEngine.RED);
+
+        assertArrayEquals(new int[]{5, 7, 5, 9}, model.lineRegion(across));
+        assertArrayEquals(new int[]{1, 2, 3, 2}, model.lineRegion(down));
+        assertArrayEquals(new int[]{2, 3, 4, 5}, model.lineRegion(diagonal));
+        assertArrayEquals(new int[]{2, 1, 4, 3}, model.removeLastLine(), "Removing a line returns the region to repaint");
+        assertEquals(3, model.getLineCount());
+    }
+
+    // Test that a cell repaint finds exactly the lines over it, including diagonals that only pass its corner,
+    // oldest first, and no longer finds a removed line
+    @Test
+    public void linesCrossing_testCell() {
+        CanvasBoardModel model = new CanvasBoardModel(20, 600);
+        for (int row = 10; row < 20; row++) model.addLine(row, 10, row, 12, SOSEngine.BLUE); // Far away, so the cell lists are used
+        int through = model.addLine(0, 0, 0, 2, SOSEngine.BLUE);
+        int corner = model.addLine(0, 0, 2, 2, SOSEngine.RED); // Bounding rectangle covers (0, 1)
+        int below = model.addLine(1, 0, 1, 2, SOSEngine.BLUE);
+        model.addLine(3, 0, 3, 2, SOSEngine.RED); // Does not reach row 0
+
+        assertArrayEquals(new int[]{through, corner}, model.linesCrossing(0, 1, 0, 1));
+        assertArrayEquals(new int[]{through, corner, below}, model.linesCrossing(0, 0, 1, 2));
+
+        model.removeLastLine();
+        model.removeLastLine();
+        assertArrayEquals(new int[]{through, corner}, model.linesCrossing(0, 1, 1, 1));
+        assertEquals(0, model.linesCrossing(5, 5, 5, 5).length);
+    }
+
+    // Test that the whole board finds every line, and clearing forgets them
+    @Test
+    public void linesCrossing_testWholeBoard() {
+        CanvasBoardModel model = new CanvasBoardModel(16, 480);
+        model.addLine(0, 0, 2, 2, SOSEngine.BLUE);
+        model.addLine(15, 13, 15, 15, SOSEngine.RED);
+        model.setCell(0, 0, SOSEngine.S, SOSEngine.BLUE);
+
+        assertArrayEquals(new int[]{0, 1}, model.linesCrossing(0, 0, 15, 15));
+        assertEquals(SOSEngine.S, model.getLetter(0, 0));
+        assertEquals(SOSEngine.BLUE, model.getOwner(0, 0));
+
+        model.clear();
+        assertEquals(0, model.linesCrossing(0, 0, 15, 15).length);
+        assertEquals(SOSEngine.EMPTY, model.getLetter(0, 0));
+        assertEquals(-1, model.getOwner(0, 0));
+    }
+}
@@ -6,7 +6,6 @@ import product.SimpleGame; // Concrete subclass
 import product.GameController;
 import product.GameLogic;
 import product.ComputerLogic;
-import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.embed.swing.JFXPanel;
 import javafx.scene.control.Button;
@@ -18,10 +17,9 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import javafx.util.Duration;
-
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -177,26 +175,90 @@ public class ComputerLogicTest {
         gameLogic.placeMove(0, 0, "S");
         gameLogic.placeMove(0, 2, "S");
 
-        // Create a CountDownLatch to wait until the PauseTransition finishes
-        CountDownLatch latch = new CountDownLatch(1);
+        // Process the computer move and wait until it has been played
+        playComputerTurn();
 
-        // Call the method that processes the computer move
-        computerLogic.manageComputerMove();
+        //Checks if computer found a SOS pattern and made a move (by placing O)
+        assertEquals("O", board.getBoardState()[0][1]);
+    }
 
-        // Create a PauseTransition and set the action to decrement the latch when finished
-        PauseTransition pause = new PauseTransition(Duration.seconds(1));
-        pause.setOnFinished(event -> {
-            // Decrement the latch to indicate that the PauseTransition is done
-            latch.countDown();
-        });
+    // Test that a computer move cancelled while it is searched is never played
+    @Test
+    public void cancelPendingMove_Test() throws InterruptedException {
+        gameController.getCurrentPlayer().setPlayerComputer();
+        gameController.setGameProgress(true);
+        gameLogic.placeMove(0, 0, "S");
+        gameLogic.placeMove(0, 2, "S");
 
-        // Start the pause
-        pause.play();
+        AtomicInteger played = new AtomicInteger();
+        computerLogic.setOnMovePlayed(played::incrementAndGet);
+        runOnFxThread(() -> {
+            computerLogic.manageComputerMove();
+            computerLogic.cancelPendingMove();
+        });
 
-        // Wait for the latch to be decremented (i.e., wait for the PauseTransition to finish)
-        latch.await();
+        // Give the cancelled search well over the move delay to come back, then let queued FX work run
+        Thread.sleep(2000);
+        runOnFxThread(() -> { });
+        assertEquals(0, played.get(), "A cancelled search should not play its move");
+        assertEquals("", board.getBoardState()[0][1]);
+    }
 
-        //Checks if computer found a SOS pattern and made a move (by placing O)
+    // Test that the computer's copy of the game follows undone moves and a new game, so each search sees the live board
+    @Test
+    public void manageComputerMove_testMirrorAfterUndoAndNewGame() throws InterruptedException {
+        gameController.getCurrentPlayer().setPlayerComputer();
+        gameController.setGameProgress(true);
+        runOnFxThread(() -> {
+            gameLogic.placeMove(0, 0, "S");
+            gameLogic.placeMove(0, 2, "S");
+        });
+        playComputerTurn();
         assertEquals("O", board.getBoardState()[0][1]);
+
+        // Undo every move and open an SOS on the bottom row instead
+        runOnFxThread(() -> {
+            while (gameLogic.undoLastMove()) {
+                // Take every move back
+            }
+            gameLogic.placeMove(2, 0, "S");
+            gameLogic.placeMove(2, 2, "S");
+            gameController.setGameProgress(true);
+        });
+        playComputerTurn();
+        assertEquals("", board.getBoardState()[0][1]);
+        assertEquals("O", board.getBoardState()[2][1], "The search should not see the undone moves");
+
+        // New game with an SOS open on the middle row
+        runOnFxThread(() -> {
+            board.createBoard();
+            gameLogic.placeMove(1, 0, "S");
+            gameLogic.placeMove(1, 2, "S");
+            gameController.setGameProgress(true);
+        });
+        playComputerTurn();
+        assertEquals("", board.getBoardState()[2][1]);
+        assertEquals("O", board.getBoardState()[1][1], "The search should not see the previous game");
+    }
+
+    // Runs an action on the JavaFX Application Thread and waits for it
+    private void runOnFxThread(Runnable action) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        Platform.runLater(() -> {
+            try {
+                action.run();
+            } finally {
+                latch.countDown();
+            }
+        });
+        assertTrue(latch.await(5, TimeUnit.SECONDS), "The FX thread should run the action");
+    }
+
+    // Starts the computer's turn and waits for its move to be played, rather than for a timer of the same length
+    private void playComputerTurn() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        computerLogic.setOnMovePlayed(latch::countDown);
+        runOnFxThread(computerLogic::manageComputerMove);
+        assertTrue(latch.await(5, TimeUnit.SECONDS), "The computer should have played a move");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package test;
+
+import product.FreeCellSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FreeCellSetTest {
+
+    // Test removing and re-adding cells keeps size and membership consistent
+    @Test
+    public void removeAndAdd_test() {
+        FreeCellSet freeCells = new FreeCellSet(9);
+        freeCells.remove(4);
+        freeCells.remove(0);
+        freeCells.remove(4); // Removing twice has no effect
+
+        assertEquals(7, freeCells.size());
+        assertFalse(freeCells.contains(4));
+
+        freeCells.add(4);
+        assertTrue(freeCells.contains(4));
+        assertEquals(8, freeCells.size());
+    }
+
+    // Test that random picks only return free cells and -1 when none are left
+    @Test
+    public void pick_test() {
+        FreeCellSet freeCells = new FreeCellSet(4);
+        freeCells.remove(0);
+        freeCells.remove(1);
+        freeCells.remove(3);
+
+        Random random = new Random(7);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(2, freeCells.pick(random), "Only cell 2 is free");
+        }
+
+        freeCells.remove(2);
+        assertEquals(-1, freeCells.pick(random));
+    }
+}
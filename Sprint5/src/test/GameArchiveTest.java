@@ -0,0 +1,98 @@
+package test;
+
+import product.GameArchive;
+import product.GameRecord;
+import product.Player;
+import product.SOSEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameArchiveTest {
+
+    @TempDir
+    Path tempDir;
+
+    // Builds a record whose moves encode its game number
+    private GameRecord game(int number) {
+        GameRecord record = new GameRecord(5, SOSEngine.Mode.GENERAL, Player.PlayerType.COMPUTER, Player.PlayerType.COMPUTER, number);
+        for (int cell = 0; cell < 10 + number % 7; cell++) record.addMove(cell % 2, cell / 5, cell % 5, SOSEngine.S);
+        return record;
+    }
+
+    // Test random access to games spread over many small segments, and reopening the archive
+    @Test
+    public void get_testRandomAccessAcrossSegments() throws IOException {
+        Path data = tempDir.resolve("games.bin");
+        Path index = tempDir.resolve("games.idx");
+
+        try (GameArchive archive = new GameArchive(data, index, 64)) { // Records straddle segment boundaries
+            for (int i = 0; i < 50; i++) assertEquals(i, archive.append(game(i)));
+            assertEquals(37L, archive.get(37).getSeed());
+        }
+
+        try (GameArchive archive = new GameArchive(data, index, 64)) {
+            assertEquals(50, archive.size());
+            for (int i = 49; i >= 0; i -= 3) {
+                GameRecord record = archive.get(i);
+                assertEquals(i, record.getSeed());
+                assertEquals(10 + i % 7, record.getMoveCount());
+            }
+            assertThrows(IndexOutOfBoundsException.class, () -> archive.get(50));
+        }
+    }
+
+    // Test that data and a partial index entry left by an interrupted append are dropped on open
+    @Test
+    public void open_testDropsTornTail() throws IOException {
+        Path data = tempDir.resolve("games.bin");
+        Path index = tempDir.resolve("games.idx");
+        long dataSize;
+        try (GameArchive archive = new GameArchive(data, index)) {
+            archive.append(game(1));
+            archive.append(game(2));
+            dataSize = archive.getOffset(1) + archive.getLength(1);
+        }
+
+        try (FileChannel channel = FileChannel.open(data, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[30]));
+        }
+        try (FileChannel channel = FileChannel.open(index, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[5]));
+        }
+
+        try (GameArchive archive = new GameArchive(data, index)) {
+            assertEquals(2, archive.size());
+            assertEquals(dataSize, data.toFile().length(), "Unindexed data should be truncated");
+            assertEquals(2L, archive.get(1).getSeed());
+        }
+    }
+
+    // Test that replacing the last game keeps the game count and survives reopening
+    @Test
+    public void replaceLast_testKeepsOneEntry() throws IOException {
+        Path data = tempDir.resolve("games.bin");
+        Path index = tempDir.resolve("games.idx");
+        try (GameArchive archive = new GameArchive(data, index)) {
+            archive.append(game(1));
+            archive.append(game(2));
+            assertEquals(1, archive.replaceLast(game(9)));
+            assertEquals(2, archive.size());
+            assertEquals(9L, archive.get(1).getSeed());
+        }
+
+        try (GameArchive archive = new GameArchive(data, index)) {
+            assertEquals(2, archive.size());
+            assertEquals(1L, archive.get(0).getSeed());
+            assertEquals(9L, archive.get(1).getSeed());
+            assertEquals(archive.getOffset(1) + archive.getLength(1), data.toFile().length());
+        }
+    }
+}
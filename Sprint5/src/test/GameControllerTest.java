@@ -92,6 +92,20 @@ public class GameControllerTest {
         assertEquals("Please enter a valid number between 3 and 10.", gameController.infoDisplay.getText()); // Check error message for out-of-bound value
     }
 
+    // Test that a raised board size limit accepts large boards and still rejects sizes above it
+    @Test
+    void setBoardSize_testConfiguredLimit() {
+        gameController.setMaxBoardSize(256);
+        gameController.boardSizeInput.setText("256");
+        gameController.setBoardSize(gameController.boardSizeInput);
+        assertEquals("Valid Board Size", gameController.infoDisplay.getText());
+
+        gameController.boardSizeInput.setText("257");
+        gameController.setBoardSize(gameController.boardSizeInput);
+        assertEquals("Please enter a valid number between 3 and 256.", gameController.infoDisplay.getText());
+        assertThrows(IllegalArgumentException.class, () -> gameController.setMaxBoardSize(257));
+    }
+
     // Test for non-numeric input in board size
     @Test
     void setBoardSize_testNonNumericInput() {
@@ -0,0 +1,94 @@
+package test;
+
+import product.GameArchive;
+import product.GameRecord;
+import product.GameRecorder;
+import product.MoveJournal;
+import product.Player;
+import product.SOSEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameRecorderTest {
+
+    @TempDir
+    Path tempDir;
+
+    // Test that no archive is opened while archiving is off
+    @Test
+    public void archiveGame_testArchivingOff() throws IOException {
+        GameRecorder recorder = new GameRecorder(tempDir.resolve("record.txt").toString(), null);
+        recorder.initializeRecording("3", "Simple", "HUMAN", "HUMAN");
+        recorder.recordMove(Player.PlayerColor.Blue, "S", 0, 0);
+        recorder.archiveGame();
+        recorder.close();
+
+        assertArrayEquals(new String[]{"record.txt"}, tempDir.toFile().list(), "Only the record should be written");
+        assertThrows(IOException.class, recorder::getArchive);
+    }
+
+    // Test that the journal turns archiving on next to the record file when no archive path is given
+    @Test
+    public void enableJournal_testArchiveNextToRecord() throws IOException {
+        GameRecorder recorder = new GameRecorder(tempDir.resolve("record.txt").toString(), null);
+        recorder.enableJournal(tempDir.resolve("journal.log").toString(), 10);
+        recorder.initializeRecording("3", "Simple", "HUMAN", "HUMAN");
+        recorder.recordMove(Player.PlayerColor.Blue, "S", 0, 0);
+        recorder.archiveGame();
+        recorder.close();
+
+        try (GameArchive archive = GameArchive.open(tempDir.resolve("record.bin"))) {
+            assertEquals(1, archive.size());
+        }
+    }
+
+    // Test that a game reopened by undo after it ended is journaled again and, once finished again,
+    // replaces its archive entry instead of being archived twice
+    @Test
+    public void archiveGame_testUndoAfterGameOver() throws IOException {
+        Path archivePath = tempDir.resolve("games.bin");
+        Path journalPath = tempDir.resolve("journal.log");
+        GameRecorder recorder = new GameRecorder(tempDir.resolve("record.txt").toString(), archivePath.toString());
+        recorder.enableJournal(journalPath.toString(), 10);
+
+        recorder.initializeRecording("3", "Simple", "HUMAN", "HUMAN");
+        recorder.recordMove(Player.PlayerColor.Blue, "S", 0, 0);
+        recorder.recordMove(Player.PlayerColor.Red, "O", 0, 1);
+        recorder.recordMove(Player.PlayerColor.Blue, "S", 0, 2);
+        recorder.archiveGame();
+        assertEquals(0L, journalPath.toFile().length(), "The archived game should be compacted out of the journal");
+
+        // Undo the winning move and play on
+        recorder.removeLastMove();
+        recorder.reopenGame();
+        recorder.recordMove(Player.PlayerColor.Blue, "S", 1, 1);
+
+        // A crash now would recover the reopened game with its later move
+        List<GameRecord> recovered;
+        try (MoveJournal journal = new MoveJournal(journalPath, 10)) {
+            recovered = journal.readUnfinishedGames();
+        }
+        assertEquals(1, recovered.size());
+        assertEquals(3, recovered.get(0).getMoveCount());
+        assertEquals(4, recovered.get(0).getMoveCell(2));
+
+        recorder.recordMove(Player.PlayerColor.Red, "S", 2, 2);
+        recorder.archiveGame();
+        recorder.close();
+        assertEquals(0L, journalPath.toFile().length());
+
+        try (GameArchive archive = GameArchive.open(archivePath)) {
+            assertEquals(1, archive.size(), "The game should be archived once");
+            GameRecord game = archive.get(0);
+            assertEquals(4, game.getMoveCount());
+            assertEquals(SOSEngine.RED, game.getMovePlayer(3));
+            assertEquals(8, game.getMoveCell(3));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package test;
+
+import product.BitBoard;
+import product.MCTSStrategy;
+import product.SOSEngine;
+import product.ThreatIndex;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MCTSStrategyTest {
+
+    // Test that an immediate SOS is taken in a simple game
+    @Test
+    public void chooseMove_testCompletesSOS() {
+        SOSEngine engine = new SOSEngine(5, SOSEngine.Mode.SIMPLE);
+        engine.makeMove(2, 0, SOSEngine.S);
+        engine.makeMove(4, 4, SOSEngine.O);
+        engine.makeMove(2, 2, SOSEngine.S);
+
+        int move = new MCTSStrategy(1000, 100, 2, true).chooseMove(engine);
+        assertEquals(ThreatIndex.moveKey(engine.getBoard().cellIndex(2, 1), BitBoard.O), move);
+    }
+
+    // Test that the search does not hand the opponent an SOS when a safe move exists
+    @Test
+    public void chooseMove_testAvoidsGivingSOS() {
+        SOSEngine engine = new SOSEngine(4, SOSEngine.Mode.SIMPLE);
+        engine.makeMove(0, 0, SOSEngine.S); // Blue
+        engine.makeMove(3, 3, SOSEngine.S); // Red; blue to move
+
+        int move = new MCTSStrategy(5000, 20000, 4, true).chooseMove(engine);
+        engine.makeMove(ThreatIndex.moveCell(move) / 4, ThreatIndex.moveCell(move) % 4, ThreatIndex.moveLetter(move));
+
+        assertFalse(engine.isGameOver());
+        assertTrue(engine.getThreats().isEmpty(), "Red should have no SOS to complete");
+    }
+
+    // Test that a general game search stops at its playout budget, returns a legal move and leaves the engine unchanged
+    @Test
+    public void chooseMove_testGeneralPlayoutBudget() {
+        SOSEngine engine = new SOSEngine(8, SOSEngine.Mode.GENERAL);
+        engine.makeMove(0, 0, SOSEngine.S);
+        engine.makeMove(3, 3, SOSEngine.O);
+        long hash = engine.getHash();
+
+        MCTSStrategy strategy = new MCTSStrategy(10_000, 500, 4, false);
+        int move = strategy.chooseMove(engine);
+
+        assertEquals(500, strategy.getPlayoutCount());
+        assertTrue(engine.isValidMove(ThreatIndex.moveCell(move) / 8, ThreatIndex.moveCell(move) % 8));
+        assertEquals(hash, engine.getHash(), "The game engine should not be touched");
+        assertEquals(2, engine.getMoveCount());
+    }
+}
@@ -0,0 +1,135 @@
+package test;
+
+import product.BitBoard;
+import product.MinimaxStrategy;
+import product.SOSEngine;
+import product.ThreatIndex;
+import product.TranspositionTable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MinimaxStrategyTest {
+
+    // Test that an immediate SOS is taken
+    @Test
+    public void chooseMove_testCompletesSOS() {
+        SOSEngine engine = new SOSEngine(4, SOSEngine.Mode.SIMPLE);
+        engine.makeMove(1, 0, SOSEngine.S);
+        engine.makeMove(3, 3, SOSEngine.O);
+        engine.makeMove(1, 2, SOSEngine.S);
+
+        int move = new MinimaxStrategy(2).chooseMove(engine);
+        assertEquals(ThreatIndex.moveKey(engine.getBoard().cellIndex(1, 1), BitBoard.O), move);
+    }
+
+    // Test that the search does not hand the opponent an SOS when a safe move exists
+    @Test
+    public void chooseMove_testAvoidsGivingSOS() {
+        SOSEngine engine = new SOSEngine(4, SOSEngine.Mode.SIMPLE);
+        engine.makeMove(0, 0, SOSEngine.S); // Blue
+        engine.makeMove(3, 3, SOSEngine.S); // Red; blue to move
+
+        int move = new MinimaxStrategy(2).chooseMove(engine);
+        engine.makeMove(ThreatIndex.moveCell(move) / 4, ThreatIndex.moveCell(move) % 4, ThreatIndex.moveLetter(move));
+
+        assertFalse(engine.isGameOver());
+        assertTrue(engine.getThreats().isEmpty(), "Red should have no SOS to complete");
+    }
+
+    // Test that a mid-game 6x6 general search answers well under one second
+    @Test
+    public void chooseMove_testSixBySixTime() {
+        SOSEngine engine = new SOSEngine(6, SOSEngine.Mode.GENERAL);
+        engine.makeMove(0, 0, SOSEngine.S);
+        engine.makeMove(2, 2, SOSEngine.O);
+        engine.makeMove(5, 1, SOSEngine.S);
+        engine.makeMove(3, 4, SOSEngine.O);
+
+        long start = System.nanoTime();
+        int move = new MinimaxStrategy(3).chooseMove(engine);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(engine.isValidMove(ThreatIndex.moveCell(move) / 6, ThreatIndex.moveCell(move) % 6));
+        assertTrue(elapsedMillis < 1000, "Search took " + elapsedMillis + " ms");
+    }
+
+    // Test that an anytime search answers within its time budget with a legal move on a large board
+    @Test
+    public void chooseMove_testTimeBudget() {
+        SOSEngine engine = new SOSEngine(12, SOSEngine.Mode.GENERAL);
+        engine.makeMove(0, 0, SOSEngine.S);
+        engine.makeMove(5, 5, SOSEngine.O);
+
+        MinimaxStrategy strategy = new MinimaxStrategy(50, 50, null);
+        long start = System.nanoTime();
+        int move = strategy.chooseMove(engine);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(engine.isValidMove(ThreatIndex.moveCell(move) / 12, ThreatIndex.moveCell(move) % 12));
+        assertTrue(strategy.getCompletedDepth() >= 1, "At least one ply should be finished");
+        assertTrue(strategy.getCompletedDepth() < 50, "The budget should stop the deepening");
+        assertTrue(elapsedMillis < 500, "Search took " + elapsedMillis + " ms");
+    }
+
+    // Test that an anytime search with time to spare stops deepening once the whole game is searched
+    @Test
+    public void chooseMove_testDeepeningFindsWin() {
+        SOSEngine engine = new SOSEngine(3, SOSEngine.Mode.SIMPLE);
+        engine.makeMove(0, 0, SOSEngine.S); // Blue
+        engine.makeMove(2, 2, SOSEngine.S); // Red
+        engine.makeMove(2, 0, SOSEngine.S); // Blue
+        engine.makeMove(0, 2, SOSEngine.S); // Red; blue to move, an O between two S wins
+
+        MinimaxStrategy strategy = new MinimaxStrategy(20, 2000, new TranspositionTable(12));
+        int move = strategy.chooseMove(engine);
+
+        assertEquals(BitBoard.O, ThreatIndex.moveLetter(move));
+        assertTrue(engine.getThreats().completions(ThreatIndex.moveCell(move), BitBoard.O) > 0, "Blue should win at once");
+        assertEquals(5, strategy.getCompletedDepth(), "Deepening should stop at the number of free cells");
+    }
+
+    // Test that a search on an interrupted thread (a cancelled computer move) gives up instead of running on
+    @Test
+    public void chooseMove_testInterrupted() {
+        SOSEngine engine = new SOSEngine(8, SOSEngine.Mode.GENERAL);
+        engine.makeMove(0, 0, SOSEngine.S);
+
+        MinimaxStrategy strategy = new MinimaxStrategy(50, new TranspositionTable(12));
+        Thread.currentThread().interrupt();
+        long start = System.nanoTime();
+        try {
+            strategy.chooseMove(engine);
+        } finally {
+            Thread.interrupted(); // Clear the flag for the next tests
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis < 500, "Search took " + elapsedMillis + " ms");
+        assertEquals(1, engine.getMoveCount(), "The engine should be left unchanged");
+    }
+
+    // Test that a table shared across board sizes and modes does not mix up positions with the same letters
+    // on the same cell indices: the 3x3 Simple search must still see that an S at (0, 0) hands blue an SOS
+    @Test
+    public void chooseMove_testSharedTableAcrossSizesAndModes() {
+        TranspositionTable table = new TranspositionTable(16);
+        int[][] variants = {{4, SOSEngine.Mode.GENERAL.ordinal()}, {4, SOSEngine.Mode.SIMPLE.ordinal()}, {3, SOSEngine.Mode.GENERAL.ordinal()}};
+        for (int[] variant : variants) {
+            int size = variant[0];
+            SOSEngine other = new SOSEngine(size, SOSEngine.Mode.values()[variant[1]]);
+            for (int cell : new int[] {7, 5, 6}) other.makeMove(cell / size, cell % size, SOSEngine.S); // Same cell indices
+            new MinimaxStrategy(9, table).chooseMove(other);
+
+            SOSEngine engine = new SOSEngine(3, SOSEngine.Mode.SIMPLE);
+            engine.makeMove(2, 1, SOSEngine.S); // Blue
+            engine.makeMove(1, 2, SOSEngine.S); // Red
+            engine.makeMove(2, 0, SOSEngine.S); // Blue; red to move
+            int move = new MinimaxStrategy(9, table).chooseMove(engine);
+            engine.makeMove(ThreatIndex.moveCell(move) / 3, ThreatIndex.moveCell(move) % 3, ThreatIndex.moveLetter(move));
+
+            assertFalse(engine.isGameOver());
+            assertTrue(engine.getThreats().isEmpty(), "Blue should have no SOS to complete after a " + size + "x" + size + " search");
+        }
+    }
+}
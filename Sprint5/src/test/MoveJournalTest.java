@@ -0,0 +1,150 @@
+package test;
+
+import product.GameRecord;
+import product.MoveJournal;
+import product.SOSEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    // Test that games are rebuilt from the journal with undos applied
+    @Test
+    public void readUnfinishedGames_testRebuildsGames() throws IOException {
+        Path path = tempDir.resolve("journal.log");
+        try (MoveJournal journal = new MoveJournal(path, 1000)) {
+            long id = journal.newGameId();
+            journal.append(MoveJournal.GAME_START, id, 4 << 8);
+            journal.append(MoveJournal.MOVE, id, GameRecord.packMove(5, SOSEngine.O, SOSEngine.BLUE));
+            journal.append(MoveJournal.MOVE, id, GameRecord.packMove(6, SOSEngine.S, SOSEngine.RED));
+            journal.appendAndCommit(MoveJournal.UNDO, id, 0);
+        }
+
+        try (MoveJournal journal = new MoveJournal(path, 1000)) {
+            List<GameRecord> games = journal.readUnfinishedGames();
+            assertEquals(1, games.size());
+            assertEquals(4, games.get(0).getSize());
+            assertEquals(1, games.get(0).getMoveCount(), "The undone move should be gone");
+            assertEquals(5, games.get(0).getMoveCell(0));
+            assertEquals(1, journal.newGameId(), "Ids continue after the recovered games");
+        }
+    }
+
+    // Test that a torn entry and a corrupt entry at the end are cut off on open
+    @Test
+    public void open_testTruncatesTornTail() throws IOException {
+        Path path = tempDir.resolve("journal.log");
+        try (MoveJournal journal = new MoveJournal(path, 1000)) {
+            journal.append(MoveJournal.GAME_START, 0, 3 << 8);
+            journal.append(MoveJournal.MOVE, 0, GameRecord.packMove(4, SOSEngine.S, SOSEngine.BLUE));
+            journal.append(MoveJournal.MOVE, 0, GameRecord.packMove(5, SOSEngine.S, SOSEngine.RED));
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(2 * MoveJournal.ENTRY_BYTES + 12);
+            file.write(0x7F); // Corrupt the payload of the last entry
+            file.seek(file.length());
+            file.write(new byte[]{0, 0, 0, 13, 1, 2}); // Torn half entry
+        }
+
+        try (MoveJournal journal = new MoveJournal(path, 1000)) {
+            assertEquals(2L * MoveJournal.ENTRY_BYTES, journal.getRecoveredBytes());
+            assertEquals(MoveJournal.ENTRY_BYTES + 6L, journal.getTruncatedBytes());
+            assertEquals(1, journal.readUnfinishedGames().get(0).getMoveCount());
+        }
+        assertEquals(2L * MoveJournal.ENTRY_BYTES, path.toFile().length());
+    }
+
+    // Test that commit waits for everything appended so far without waiting for the commit interval
+    @Test
+    public void commit_testEverythingAppended() throws IOException {
+        Path path = tempDir.resolve("journal.log");
+        try (MoveJournal journal = new MoveJournal(path, 60_000)) {
+            long id = journal.newGameId();
+            journal.append(MoveJournal.GAME_START, id, 3 << 8);
+            journal.append(MoveJournal.MOVE, id, GameRecord.packMove(4, SOSEngine.S, SOSEngine.BLUE));
+
+            long start = System.nanoTime();
+            journal.commit();
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            assertTrue(elapsedMillis < 10_000, "Commit waited " + elapsedMillis + " ms for the interval");
+        }
+    }
+
+    // Test that concurrent games committing at the same time all become durable
+    @Test
+    public void commit_testConcurrentGames() throws Exception {
+        Path path = tempDir.resolve("journal.log");
+        try (MoveJournal journal = new MoveJournal(path, 1000)) {
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                long id = journal.newGameId();
+                Thread thread = new Thread(() -> {
+                    try {
+                        journal.append(MoveJournal.GAME_START, id, 5 << 8);
+                        for (int cell = 0; cell < 25; cell++) {
+                            journal.appendAndCommit(MoveJournal.MOVE, id, GameRecord.packMove(cell, SOSEngine.S, cell & 1));
+                        }
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) thread.join(10_000);
+
+            List<GameRecord> games = journal.readUnfinishedGames();
+            assertEquals(8, games.size());
+            for (GameRecord game : games) assertEquals(25, game.getMoveCount());
+
+            journal.appendAndCommit(MoveJournal.GAME_END, 3, 0);
+            assertEquals(7, journal.readUnfinishedGames().size(), "Finished games are not returned");
+        }
+    }
+
+    // Test that compacting removes finished games, keeps the games in progress, and that appends continue after it
+    @Test
+    public void compact_testKeepsGamesInProgress() throws IOException {
+        Path path = tempDir.resolve("journal.log");
+        try (MoveJournal journal = new MoveJournal(path, 1000)) {
+            long finished = journal.newGameId();
+            long playing = journal.newGameId();
+            journal.append(MoveJournal.GAME_START, finished, 3 << 8);
+            journal.append(MoveJournal.GAME_START, playing, 4 << 8);
+            journal.append(MoveJournal.MOVE, finished, GameRecord.packMove(0, SOSEngine.S, SOSEngine.BLUE));
+            journal.append(MoveJournal.MOVE, playing, GameRecord.packMove(7, SOSEngine.O, SOSEngine.BLUE));
+            journal.append(MoveJournal.GAME_END, finished, 0);
+            journal.append(MoveJournal.UNDO, finished, 0); // Logged after its game was compacted away
+
+            journal.compact();
+            assertEquals(2L * MoveJournal.ENTRY_BYTES, path.toFile().length(), "Only the game in progress should be left");
+
+            journal.compact(); // Drops the stray undo of the removed game, keeps the rest
+            journal.appendAndCommit(MoveJournal.MOVE, playing, GameRecord.packMove(8, SOSEngine.S, SOSEngine.RED));
+        }
+
+        try (MoveJournal journal = new MoveJournal(path, 1000)) {
+            List<GameRecord> games = journal.readUnfinishedGames();
+            assertEquals(1, games.size());
+            assertEquals(4, games.get(0).getSize());
+            assertEquals(2, games.get(0).getMoveCount());
+            assertEquals(8, games.get(0).getMoveCell(1));
+
+            journal.append(MoveJournal.GAME_END, 1, 0);
+            journal.compact();
+            assertEquals(0L, path.toFile().length(), "Nothing should be left once every game has finished");
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package test;
+
+import product.GameRecord;
+import product.Player;
+import product.ReplayNavigator;
+import product.SOSEngine;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplayNavigatorTest {
+
+    // Plays a random general game and records it
+    private GameRecord randomGame(int size, long seed) {
+        Random random = new Random(seed);
+        SOSEngine engine = new SOSEngine(size, SOSEngine.Mode.GENERAL);
+        GameRecord record = new GameRecord(size, SOSEngine.Mode.GENERAL, Player.PlayerType.COMPUTER, Player.PlayerType.COMPUTER, seed);
+        while (!engine.isGameOver()) {
+            int cell = engine.getBoard().getFreeCells().pick(random);
+            int letter = random.nextBoolean() ? SOSEngine.S : SOSEngine.O;
+            record.addMove(engine.getCurrentPlayer(), cell / size, cell % size, letter);
+            engine.makeMove(cell / size, cell % size, letter);
+        }
+        return record;
+    }
+
+    // Plays the first moveCount moves of a record on a fresh engine
+    private SOSEngine playTo(GameRecord record, int moveCount) {
+        SOSEngine engine = new SOSEngine(record.getSize(), record.getMode());
+        for (int i = 0; i < moveCount; i++) engine.makeMove(record.getMoveRow(i), record.getMoveCol(i), record.getMoveLetter(i));
+        return engine;
+    }
+
+    private void assertSamePosition(SOSEngine expected, SOSEngine actual, int moveCount) {
+        assertEquals(expected.getHash(), actual.getHash(), "Position after " + moveCount + " moves");
+        assertEquals(expected.getScoredLines().getCount(), actual.getScoredLines().getCount());
+        assertEquals(expected.getResult(), actual.getResult());
+    }
+
+    // Test seeking to arbitrary moves in both directions
+    @Test
+    public void seek_testMatchesPlayedPosition() {
+        GameRecord record = randomGame(7, 3L);
+        ReplayNavigator navigator = new ReplayNavigator(record, new SOSEngine(7, SOSEngine.Mode.GENERAL), 5);
+        assertEquals(0, navigator.getPosition());
+
+        Random random = new Random(11);
+        for (int i = 0; i < 40; i++) {
+            int target = random.nextInt(record.getMoveCount() + 1);
+            navigator.seek(target);
+            assertSamePosition(playTo(record, target), navigator.getEngine(), target);
+        }
+    }
+
+    // Test that a navigator built from the record alone replays on its own engine
+    @Test
+    public void seek_testPrivateEngine() {
+        GameRecord record = randomGame(6, 5L);
+        ReplayNavigator first = new ReplayNavigator(record);
+        ReplayNavigator second = new ReplayNavigator(record);
+        assertNotSame(first.getEngine(), second.getEngine());
+        assertEquals(6, first.getEngine().getSize());
+
+        first.seek(record.getMoveCount());
+        assertSamePosition(playTo(record, record.getMoveCount()), first.getEngine(), record.getMoveCount());
+        assertSamePosition(playTo(record, 0), second.getEngine(), 0);
+    }
+
+    // Test that moves added one at a time, as a streamed replay reads them, can be sought like loaded ones
+    @Test
+    public void addMove_testStreamedMoves() {
+        GameRecord record = randomGame(5, 21L);
+        GameRecord streamed = new GameRecord(5, SOSEngine.Mode.GENERAL, Player.PlayerType.COMPUTER, Player.PlayerType.COMPUTER, 21L);
+        ReplayNavigator navigator = new ReplayNavigator(streamed, new SOSEngine(5, SOSEngine.Mode.GENERAL), 4);
+
+        for (int i = 0; i < record.getMoveCount(); i++) {
+            navigator.addMove(record.getMovePlayer(i), record.getMoveRow(i), record.getMoveCol(i), record.getMoveLetter(i));
+            assertEquals(i, navigator.getPosition(), "Adding a move should not move the replay");
+            navigator.stepForward();
+            assertSamePosition(playTo(record, i + 1), navigator.getEngine(), i + 1);
+        }
+        navigator.seek(3);
+        assertSamePosition(playTo(record, 3), navigator.getEngine(), 3);
+
+        // A move after the game ended is refused and leaves the record as it was
+        int count = streamed.getMoveCount();
+        assertThrows(IllegalArgumentException.class, () -> navigator.addMove(SOSEngine.BLUE, 0, 0, SOSEngine.S));
+        assertEquals(count, streamed.getMoveCount());
+        assertEquals(3, navigator.getPosition());
+    }
+
+    // Test stepping through the whole game forward and back
+    @Test
+    public void step_testForwardAndBack() {
+        GameRecord record = randomGame(5, 8L);
+        ReplayNavigator navigator = new ReplayNavigator(record, new SOSEngine(5, SOSEngine.Mode.GENERAL), 4);
+
+        while (navigator.stepForward()) {
+            assertSamePosition(playTo(record, navigator.getPosition()), navigator.getEngine(), navigator.getPosition());
+        }
+        assertEquals(record.getMoveCount(), navigator.getPosition());
+        assertTrue(navigator.getEngine().isGameOver());
+
+        while (navigator.stepBack()) {
+            assertSamePosition(playTo(record, navigator.getPosition()), navigator.getEngine(), navigator.getPosition());
+        }
+        assertEquals(0, navigator.getPosition());
+    }
+}
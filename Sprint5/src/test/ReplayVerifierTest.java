@@ -0,0 +1,105 @@
+package test;
+
+import product.GameArchive;
+import product.GameRecord;
+import product.Player;
+import product.ReplayVerifier;
+import product.SOSEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplayVerifierTest {
+
+    @TempDir
+    Path tempDir;
+
+    private GameRecord newRecord(SOSEngine.Mode mode) {
+        return new GameRecord(3, mode, Player.PlayerType.HUMAN, Player.PlayerType.HUMAN, 0L);
+    }
+
+    // Test that a legal general game is replayed with scores and winner, including an extra turn
+    @Test
+    public void verify_testLegalGame() {
+        GameRecord record = newRecord(SOSEngine.Mode.GENERAL);
+        record.addMove(SOSEngine.BLUE, 0, 0, SOSEngine.S);
+        record.addMove(SOSEngine.RED, 0, 2, SOSEngine.S);
+        record.addMove(SOSEngine.BLUE, 0, 1, SOSEngine.O); // Blue scores and moves again
+        record.addMove(SOSEngine.BLUE, 1, 0, SOSEngine.O);
+        record.addMove(SOSEngine.RED, 1, 1, SOSEngine.S);
+        record.addMove(SOSEngine.BLUE, 1, 2, SOSEngine.O);
+        record.addMove(SOSEngine.RED, 2, 0, SOSEngine.O);
+        record.addMove(SOSEngine.BLUE, 2, 1, SOSEngine.O);
+        record.addMove(SOSEngine.RED, 2, 2, SOSEngine.O);
+
+        ReplayVerifier.Report report = new ReplayVerifier().verify(record);
+        assertTrue(report.isValid(), report.toString());
+        assertEquals(1, report.getScore(SOSEngine.BLUE));
+        assertEquals(SOSEngine.Outcome.BLUE_WINS, report.getResult());
+    }
+
+    // Test the divergences the verifier reports
+    @Test
+    public void verify_testDivergences() {
+        ReplayVerifier verifier = new ReplayVerifier();
+
+        GameRecord occupied = newRecord(SOSEngine.Mode.SIMPLE);
+        occupied.addMove(SOSEngine.BLUE, 1, 1, SOSEngine.S);
+        occupied.addMove(SOSEngine.RED, 1, 1, SOSEngine.O);
+        assertEquals(1, verifier.verify(occupied).getFailedMove());
+
+        GameRecord outOfTurn = newRecord(SOSEngine.Mode.GENERAL);
+        outOfTurn.addMove(SOSEngine.BLUE, 0, 0, SOSEngine.S);
+        outOfTurn.addMove(SOSEngine.BLUE, 0, 1, SOSEngine.O); // Blue did not score, so Red was to move
+        ReplayVerifier.Report report = verifier.verify(outOfTurn);
+        assertEquals(1, report.getFailedMove());
+        assertTrue(report.getProblem().contains("out of turn"));
+
+        GameRecord afterEnd = newRecord(SOSEngine.Mode.SIMPLE);
+        afterEnd.addMove(SOSEngine.BLUE, 0, 0, SOSEngine.S);
+        afterEnd.addMove(SOSEngine.RED, 0, 1, SOSEngine.O);
+        afterEnd.addMove(SOSEngine.BLUE, 0, 2, SOSEngine.S); // Blue wins
+        afterEnd.addMove(SOSEngine.RED, 2, 2, SOSEngine.S);
+        assertEquals(3, verifier.verify(afterEnd).getFailedMove());
+    }
+
+    // Test that a move off the board is reported as such, not as an occupied cell
+    @Test
+    public void verify_testOffBoard() {
+        GameRecord offBoard = newRecord(SOSEngine.Mode.SIMPLE);
+        offBoard.addMove(SOSEngine.BLUE, 0, 0, SOSEngine.S);
+        offBoard.addMove(SOSEngine.RED, 3, 0, SOSEngine.O); // Row 3 of a 3x3 board
+        ReplayVerifier.Report report = new ReplayVerifier().verify(offBoard);
+        assertEquals(1, report.getFailedMove());
+        assertEquals("cell (3, 0) is off the board", report.getProblem());
+
+        SOSEngine engine = new SOSEngine(3, SOSEngine.Mode.SIMPLE);
+        assertEquals("cell (0, -1) is off the board", ReplayVerifier.checkMove(engine, SOSEngine.BLUE, 0, -1));
+        assertEquals("cell (1, 3) is off the board", ReplayVerifier.checkMove(engine, SOSEngine.BLUE, 1, 3));
+        assertNull(ReplayVerifier.checkMove(engine, SOSEngine.BLUE, 1, 2));
+    }
+
+    // Test bulk verification of an archive
+    @Test
+    public void verifyArchive_testReportsFailedGames() throws IOException {
+        GameRecord good = newRecord(SOSEngine.Mode.SIMPLE);
+        good.addMove(SOSEngine.BLUE, 0, 0, SOSEngine.S);
+        GameRecord bad = newRecord(SOSEngine.Mode.SIMPLE);
+        bad.addMove(SOSEngine.RED, 0, 0, SOSEngine.S); // Blue always starts
+
+        List<Integer> failed = new ArrayList<>();
+        try (GameArchive archive = GameArchive.open(tempDir.resolve("games.bin"))) {
+            archive.append(good);
+            archive.append(bad);
+            archive.append(good);
+            assertEquals(1, new ReplayVerifier().verifyArchive(archive, (n, report) -> failed.add(n)));
+        }
+        assertEquals(List.of(1), failed);
+    }
+}
@@ -0,0 +1,128 @@
+package test;
+
+import product.SOSEngine;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs without a JavaFX toolkit: the engine has no FX dependency
+public class SOSEngineTest {
+
+    // Test that a move on an occupied cell is rejected
+    @Test
+    public void makeMove_testOccupiedCell() {
+        SOSEngine engine = new SOSEngine(3, SOSEngine.Mode.SIMPLE);
+        engine.makeMove(0, 0, SOSEngine.S);
+
+        assertEquals(SOSEngine.INVALID_MOVE, engine.makeMove(0, 0, SOSEngine.O), "Occupied cell should be rejected");
+        assertEquals(SOSEngine.RED, engine.getCurrentPlayer(), "Turn should not change on a rejected move");
+    }
+
+    // Test that the first SOS ends a simple game
+    @Test
+    public void makeMove_testSimpleWin() {
+        SOSEngine engine = new SOSEngine(3, SOSEngine.Mode.SIMPLE);
+        engine.makeMove(0, 0, SOSEngine.S); // Blue
+        engine.makeMove(0, 1, SOSEngine.O); // Red
+        engine.makeMove(2, 2, SOSEngine.O); // Blue
+        engine.makeMove(0, 2, SOSEngine.S); // Red completes SOS
+
+        assertTrue(engine.isGameOver(), "Game should be over after the first SOS");
+        assertEquals(SOSEngine.Outcome.RED_WINS, engine.getResult());
+        assertEquals(SOSEngine.INVALID_MOVE, engine.makeMove(1, 1, SOSEngine.S), "No moves after game over");
+    }
+
+    // Test that scoring in a general game grants another move
+    @Test
+    public void makeMove_testGeneralExtraTurn() {
+        SOSEngine engine = new SOSEngine(3, SOSEngine.Mode.GENERAL);
+        engine.makeMove(0, 0, SOSEngine.S); // Blue
+        engine.makeMove(1, 1, SOSEngine.O); // Red
+        engine.makeMove(0, 2, SOSEngine.S); // Blue
+        engine.makeMove(0, 1, SOSEngine.O); // Red scores the top row
+
+        assertEquals(1, engine.getScore(SOSEngine.RED));
+        assertEquals(SOSEngine.RED, engine.getCurrentPlayer(), "Red should move again after scoring");
+
+        assertEquals(1, engine.makeMove(2, 2, SOSEngine.S), "Red should score the primary diagonal");
+        assertEquals(2, engine.getScore(SOSEngine.RED));
+    }
+
+    // Test that a full board without SOS is a draw
+    @Test
+    public void makeMove_testDraw() {
+        SOSEngine engine = new SOSEngine(3, SOSEngine.Mode.SIMPLE);
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                engine.makeMove(i, j, SOSEngine.S);
+            }
+        }
+
+        assertTrue(engine.isBoardFull());
+        assertEquals(SOSEngine.Outcome.DRAW, engine.getResult());
+    }
+
+    // Test that one placement can score several lines, checking only windows through the placed cell
+    @Test
+    public void scorePlacement_testMultipleLines() {
+        SOSEngine engine = new SOSEngine(5, SOSEngine.Mode.GENERAL);
+        engine.placeLetter(0, 0, SOSEngine.S);
+        engine.placeLetter(0, 1, SOSEngine.O);
+        engine.placeLetter(1, 2, SOSEngine.O);
+        engine.placeLetter(2, 2, SOSEngine.S);
+        engine.placeLetter(4, 0, SOSEngine.S); // Unrelated SOS elsewhere must not be scored
+        engine.placeLetter(4, 1, SOSEngine.O);
+        engine.placeLetter(4, 2, SOSEngine.S);
+        engine.placeLetter(0, 2, SOSEngine.S);
+
+        assertEquals(2, engine.scorePlacement(0, 2, SOSEngine.BLUE), "Row and column through (0, 2) should score");
+        assertEquals(0, engine.scorePlacement(0, 2, SOSEngine.BLUE), "Already scored lines should not score again");
+        assertEquals(2, engine.getScore(SOSEngine.BLUE));
+    }
+
+    // Test that undoing every move restores the empty position exactly
+    @Test
+    public void undoMove_testRestoresPosition() {
+        SOSEngine engine = new SOSEngine(3, SOSEngine.Mode.GENERAL);
+        long emptyHash = engine.getHash();
+
+        engine.makeMove(0, 0, SOSEngine.S); // Blue
+        engine.makeMove(0, 2, SOSEngine.S); // Red
+        engine.makeMove(0, 1, SOSEngine.O); // Blue scores and keeps the turn
+        assertEquals(1, engine.getScore(SOSEngine.BLUE));
+
+        assertTrue(engine.undoMove());
+        assertEquals(0, engine.getScore(SOSEngine.BLUE), "Score should be taken back");
+        assertEquals(SOSEngine.BLUE, engine.getCurrentPlayer(), "Blue should be to move again");
+        assertTrue(engine.isValidMove(0, 1));
+        assertFalse(engine.getScoredLines().isScored(0, 0), "Line should be unscored");
+
+        assertTrue(engine.undoMove());
+        assertTrue(engine.undoMove());
+        assertFalse(engine.undoMove(), "Nothing left to undo");
+        assertEquals(emptyHash, engine.getHash());
+        assertTrue(engine.getThreats().isEmpty());
+    }
+
+    // Test that the kept move count is the oldest placements not undone since the last call
+    @Test
+    public void takeKeptMoveCount_testUndoAndReplay() {
+        SOSEngine engine = new SOSEngine(3, SOSEngine.Mode.GENERAL);
+        engine.makeMove(0, 0, SOSEngine.S);
+        engine.makeMove(0, 1, SOSEngine.O);
+        assertEquals(0, engine.takeKeptMoveCount(), "Both moves are new");
+
+        engine.makeMove(0, 2, SOSEngine.S);
+        assertEquals(2, engine.takeKeptMoveCount());
+
+        engine.undoMove();
+        engine.undoMove();
+        engine.makeMove(1, 1, SOSEngine.O);
+        engine.makeMove(2, 2, SOSEngine.S);
+        assertEquals(1, engine.takeKeptMoveCount(), "Only the first move was never undone");
+        assertEquals(3, engine.takeKeptMoveCount(), "Nothing changed since the last call");
+
+        engine.reset();
+        assertEquals(0, engine.takeKeptMoveCount());
+    }
+}
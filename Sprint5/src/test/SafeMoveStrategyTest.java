@@ -0,0 +1,74 @@
+package test;
+
+import product.BitBoard;
+import product.SOSEngine;
+import product.SafeMoveStrategy;
+import product.ThreatIndex;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SafeMoveStrategyTest {
+
+    // Test that the move completing the most SOS is taken
+    @Test
+    public void chooseMove_testCompletesMostSOS() {
+        SOSEngine engine = new SOSEngine(3, SOSEngine.Mode.GENERAL);
+        engine.placeLetter(0, 0, SOSEngine.S);
+        engine.placeLetter(2, 2, SOSEngine.S);
+        engine.placeLetter(0, 2, SOSEngine.S);
+        engine.placeLetter(2, 0, SOSEngine.S);
+
+        assertEquals(ThreatIndex.moveKey(4, BitBoard.O), new SafeMoveStrategy().chooseMove(engine), "O in the centre scores twice");
+    }
+
+    // Test that a whole game of safe moves against safe moves never leaves a threat while a safe move existed
+    @Test
+    public void chooseMove_testNeverGivesSOSWhenSafe() {
+        SafeMoveStrategy strategy = new SafeMoveStrategy();
+        for (int game = 0; game < 20; game++) {
+            SOSEngine engine = new SOSEngine(10, SOSEngine.Mode.GENERAL);
+            while (!engine.isGameOver()) {
+                boolean safeExists = engine.getThreats().isEmpty() && hasSafeMove(engine);
+                int move = strategy.chooseMove(engine);
+                int cell = ThreatIndex.moveCell(move);
+                engine.makeMove(cell / 10, cell % 10, ThreatIndex.moveLetter(move));
+                if (safeExists) assertTrue(engine.getThreats().isEmpty(), "A safe move was available");
+            }
+        }
+    }
+
+    // Test that a safe O is played when an S on either free cell would hand out an SOS
+    @Test
+    public void chooseMove_testPrefersSafeMove() {
+        SOSEngine engine = new SOSEngine(3, SOSEngine.Mode.GENERAL);
+        // S S S
+        // _ O _   an S on either side makes S O _ or _ O S
+        // O O O
+        engine.placeLetter(0, 0, SOSEngine.S);
+        engine.placeLetter(0, 1, SOSEngine.S);
+        engine.placeLetter(0, 2, SOSEngine.S);
+        engine.placeLetter(1, 1, SOSEngine.O);
+        engine.placeLetter(2, 0, SOSEngine.O);
+        engine.placeLetter(2, 1, SOSEngine.O);
+        engine.placeLetter(2, 2, SOSEngine.O);
+
+        ThreatIndex threats = engine.getThreats();
+        assertEquals(1, threats.dangers(3, BitBoard.S));
+        assertEquals(1, threats.dangers(5, BitBoard.S));
+
+        for (int i = 0; i < 20; i++) {
+            int move = new SafeMoveStrategy().chooseMove(engine);
+            assertEquals(BitBoard.O, ThreatIndex.moveLetter(move));
+            assertEquals(0, threats.dangers(ThreatIndex.moveCell(move), BitBoard.O));
+        }
+    }
+
+    private static boolean hasSafeMove(SOSEngine engine) {
+        for (int i = 0; i < engine.getBoard().getFreeCells().size(); i++) {
+            int cell = engine.getBoard().getFreeCells().get(i);
+            if (engine.getThreats().dangers(cell, BitBoard.S) == 0 || engine.getThreats().dangers(cell, BitBoard.O) == 0) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,37 @@
+package test;
+
+import product.BitBoard;
+import product.ScoredLineIndex;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScoredLineIndexTest {
+
+    // Test that lines are keyed by both start cell and direction
+    @Test
+    public void markAndUnmark_test() {
+        ScoredLineIndex index = new ScoredLineIndex(100);
+        index.mark(BitBoard.COLUMN, 70);
+
+        assertTrue(index.isScored(BitBoard.COLUMN, 70));
+        assertFalse(index.isScored(BitBoard.ROW, 70), "Same start cell in another direction is a different line");
+        assertEquals(70, index.nextScored(BitBoard.COLUMN, 0));
+
+        index.unmark(BitBoard.COLUMN, 70);
+        assertFalse(index.isScored(BitBoard.COLUMN, 70));
+        assertEquals(0, index.getCount());
+    }
+
+    // Test clearing the index between games
+    @Test
+    public void clear_test() {
+        ScoredLineIndex index = new ScoredLineIndex(9);
+        index.mark(BitBoard.ROW, 0);
+        index.mark(BitBoard.SECONDARY_DIAGONAL, 2);
+        index.clear();
+
+        assertEquals(0, index.getCount());
+        assertEquals(-1, index.nextScored(BitBoard.ROW, 0));
+    }
+}
@@ -0,0 +1,135 @@
+package test;
+
+import product.BitBoard;
+import product.EndgameTablebase;
+import product.GreedyStrategy;
+import product.SOSEngine;
+import product.TablebaseStrategy;
+import product.ThreatIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TablebaseStrategyTest {
+
+    @TempDir
+    Path tempDir;
+
+    // Test that perfect play on 3x3 always reaches at least the solved value, whatever the opponent does
+    @Test
+    public void chooseMove_testPerfectPlayKeepsValue() {
+        for (SOSEngine.Mode mode : SOSEngine.Mode.values()) {
+            TablebaseStrategy perfect = new TablebaseStrategy(null, 9, new GreedyStrategy());
+            int value = perfect.getValue(new SOSEngine(3, mode)); // For blue, who moves first
+            GreedyStrategy opponent = new GreedyStrategy();
+
+            for (int game = 0; game < 50; game++) {
+                SOSEngine engine = new SOSEngine(3, mode);
+                while (!engine.isGameOver()) {
+                    int move = engine.getCurrentPlayer() == SOSEngine.BLUE ? perfect.chooseMove(engine) : opponent.chooseMove(engine);
+                    engine.makeMove(ThreatIndex.moveCell(move) / 3, ThreatIndex.moveCell(move) % 3, ThreatIndex.moveLetter(move));
+                }
+
+                int margin = engine.getScore(SOSEngine.BLUE) - engine.getScore(SOSEngine.RED);
+                if (mode == SOSEngine.Mode.GENERAL) assertTrue(margin >= value, "Blue should score at least the solved margin " + value);
+                else if (value >= 0) assertNotEquals(SOSEngine.Outcome.RED_WINS, engine.getResult(), "Blue should not lose");
+                if (mode == SOSEngine.Mode.SIMPLE && value == 1) assertEquals(SOSEngine.Outcome.BLUE_WINS, engine.getResult());
+            }
+        }
+    }
+
+    // Test that an immediate SOS is found and valued as a win
+    @Test
+    public void chooseMove_testCompletesSOS() {
+        SOSEngine engine = new SOSEngine(4, SOSEngine.Mode.SIMPLE);
+        engine.makeMove(1, 0, SOSEngine.S);
+        engine.makeMove(3, 3, SOSEngine.O);
+        engine.makeMove(1, 2, SOSEngine.S);
+
+        TablebaseStrategy strategy = new TablebaseStrategy(null, 13, new GreedyStrategy());
+        assertEquals(ThreatIndex.moveKey(engine.getBoard().cellIndex(1, 1), BitBoard.O), strategy.chooseMove(engine));
+        assertEquals(1, strategy.getValue(engine));
+    }
+
+    // Test that a solve on an interrupted thread gives up without a move and stores no unfinished values
+    @Test
+    public void chooseMove_testInterrupted() {
+        SOSEngine engine = new SOSEngine(4, SOSEngine.Mode.GENERAL);
+        TablebaseStrategy strategy = new TablebaseStrategy(null, 16, new GreedyStrategy());
+
+        Thread.currentThread().interrupt();
+        try {
+            assertEquals(-1, strategy.chooseMove(engine));
+        } finally {
+            Thread.interrupted(); // Clear the flag for the next tests
+        }
+        assertEquals(0, strategy.getTable(4, SOSEngine.Mode.GENERAL).size(), "Nothing should be stored");
+    }
+
+    // Test that solved positions are saved and read back instead of being solved again
+    @Test
+    public void save_testRoundTrip() throws IOException {
+        SOSEngine engine = new SOSEngine(4, SOSEngine.Mode.GENERAL);
+        engine.makeMove(0, 0, SOSEngine.S);
+        engine.makeMove(1, 1, SOSEngine.O);
+        engine.makeMove(3, 0, SOSEngine.O);
+        engine.makeMove(2, 3, SOSEngine.S);
+        engine.makeMove(0, 3, SOSEngine.O);
+        engine.makeMove(3, 2, SOSEngine.S);
+
+        TablebaseStrategy strategy = new TablebaseStrategy(tempDir, 10, new GreedyStrategy());
+        int move = strategy.chooseMove(engine);
+        int solved = strategy.getTable(4, SOSEngine.Mode.GENERAL).size();
+        assertTrue(solved > 1000, "Every position below should be solved");
+        strategy.save();
+
+        TablebaseStrategy reloaded = new TablebaseStrategy(tempDir, 10, new GreedyStrategy());
+        EndgameTablebase table = reloaded.getTable(4, SOSEngine.Mode.GENERAL);
+        assertEquals(solved, table.size());
+        assertFalse(table.isModified());
+        assertNotEquals(EndgameTablebase.MISSING, table.lookup(engine.getBoard().getCanonicalHash()));
+        assertEquals(move, reloaded.chooseMove(engine));
+        assertEquals(solved, table.size(), "Nothing should be solved again");
+    }
+
+    // Test that a rotated position is answered from the entry of the original, with the move rotated too
+    @Test
+    public void chooseMove_testSymmetricPosition() {
+        SOSEngine engine = new SOSEngine(4, SOSEngine.Mode.SIMPLE);
+        engine.makeMove(1, 0, SOSEngine.S);
+        engine.makeMove(3, 3, SOSEngine.O);
+        engine.makeMove(1, 2, SOSEngine.S);
+
+        SOSEngine rotated = new SOSEngine(4, SOSEngine.Mode.SIMPLE); // The same position turned by 90 degrees
+        rotated.makeMove(0, 2, SOSEngine.S);
+        rotated.makeMove(3, 0, SOSEngine.O);
+        rotated.makeMove(2, 2, SOSEngine.S);
+
+        TablebaseStrategy strategy = new TablebaseStrategy(null, 13, new GreedyStrategy());
+        strategy.chooseMove(engine);
+        int solved = strategy.getTable(4, SOSEngine.Mode.SIMPLE).size();
+
+        assertEquals(ThreatIndex.moveKey(rotated.getBoard().cellIndex(1, 2), BitBoard.O), strategy.chooseMove(rotated));
+        assertEquals(solved, strategy.getTable(4, SOSEngine.Mode.SIMPLE).size(), "Nothing should be solved again");
+    }
+
+    // Test that positions with too many free cells, and large boards, go to the fallback strategy
+    @Test
+    public void chooseMove_testFallback() {
+        int[] calls = {0};
+        TablebaseStrategy strategy = new TablebaseStrategy(null, 8, engine -> {
+            calls[0]++;
+            return ThreatIndex.moveKey(0, BitBoard.S);
+        });
+
+        assertFalse(strategy.canSolve(new SOSEngine(3, SOSEngine.Mode.SIMPLE)));
+        assertFalse(strategy.canSolve(new SOSEngine(6, SOSEngine.Mode.SIMPLE)));
+        strategy.chooseMove(new SOSEngine(3, SOSEngine.Mode.SIMPLE));
+        strategy.chooseMove(new SOSEngine(6, SOSEngine.Mode.GENERAL));
+        assertEquals(2, calls[0]);
+    }
+}
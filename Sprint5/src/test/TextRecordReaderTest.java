@@ -0,0 +1,53 @@
+package test;
+
+import product.Player;
+import product.SOSEngine;
+import product.TextRecordReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TextRecordReaderTest {
+
+    // Test streaming the metadata and moves of a record with Windows line breaks
+    @Test
+    public void next_testStreamsMoves() throws IOException {
+        String text = "BoardSize,12\r\nGameMode,Simple\r\nBlue,COMPUTER\r\nRed,HUMAN\r\n\r\nBlue,S,0,11\r\nRed,O,10,3\r\n";
+        try (TextRecordReader reader = new TextRecordReader(new StringReader(text))) {
+            assertEquals(12, reader.getSize());
+            assertEquals(SOSEngine.Mode.SIMPLE, reader.getMode());
+            assertEquals(Player.PlayerType.COMPUTER, reader.getBlueType());
+            assertEquals(Player.PlayerType.HUMAN, reader.getRedType());
+
+            assertTrue(reader.next());
+            assertEquals(SOSEngine.BLUE, reader.getPlayer());
+            assertEquals(SOSEngine.S, reader.getLetter());
+            assertEquals(11, reader.getCol());
+
+            assertTrue(reader.next());
+            assertEquals(SOSEngine.RED, reader.getPlayer());
+            assertEquals(SOSEngine.O, reader.getLetter());
+            assertEquals(10, reader.getRow());
+            assertEquals(3, reader.getCol());
+
+            assertFalse(reader.next(), "End of record");
+            assertEquals(2, reader.getMoveCount());
+        }
+    }
+
+    // Test that malformed metadata and moves are rejected
+    @Test
+    public void next_testMalformedInput() throws IOException {
+        assertThrows(IOException.class, () -> new TextRecordReader(new StringReader("BoardSize,x\n")));
+        assertThrows(IOException.class, () -> new TextRecordReader(new StringReader("BoardSize,5\nGameMode,General\n")));
+
+        String header = "BoardSize,5\nGameMode,General\nBlue,HUMAN\nRed,HUMAN\n\n";
+        for (String move : new String[]{"Green,S,0,0", "Blue,X,0,0", "Blue,S,0", "Red,O,5,0", "Red,O,-1,0"}) {
+            TextRecordReader reader = new TextRecordReader(new StringReader(header + move + "\n"));
+            assertThrows(IOException.class, reader::next, move);
+        }
+    }
+}
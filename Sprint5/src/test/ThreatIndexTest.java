@@ -0,0 +1,84 @@
+package test;
+
+import product.BitBoard;
+import product.SOSEngine;
+import product.ThreatIndex;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ThreatIndexTest {
+
+    // Test that an S_S window offers an O in the gap, and that filling the gap removes it
+    @Test
+    public void placeLetter_testThreatAddedAndRemoved() {
+        SOSEngine engine = new SOSEngine(3, SOSEngine.Mode.GENERAL);
+        ThreatIndex threats = engine.getThreats();
+
+        engine.placeLetter(0, 0, SOSEngine.S);
+        assertTrue(threats.isEmpty(), "A single S is not a threat");
+
+        engine.placeLetter(0, 2, SOSEngine.S);
+        assertEquals(ThreatIndex.moveKey(1, BitBoard.O), threats.firstMove());
+        assertEquals(1, threats.completions(1, BitBoard.O));
+
+        engine.placeLetter(0, 1, SOSEngine.O);
+        assertTrue(threats.isEmpty(), "Completed window is no longer a threat");
+    }
+
+    // Test that a move completing several windows is counted once per window
+    @Test
+    public void completions_testSharedGap() {
+        SOSEngine engine = new SOSEngine(3, SOSEngine.Mode.GENERAL);
+        engine.placeLetter(0, 0, SOSEngine.S);
+        engine.placeLetter(2, 2, SOSEngine.S);
+        engine.placeLetter(0, 2, SOSEngine.S);
+        engine.placeLetter(2, 0, SOSEngine.S);
+
+        ThreatIndex threats = engine.getThreats();
+        assertEquals(2, threats.completions(4, BitBoard.O), "O in the centre completes both diagonals");
+        assertEquals(5, threats.size(), "Centre O plus the four edge gaps");
+    }
+
+    // Test that a lone S makes the letters that would form S_S or SO_ with it dangerous, and that this is undone
+    @Test
+    public void dangers_testLoneS() {
+        SOSEngine engine = new SOSEngine(5, SOSEngine.Mode.GENERAL);
+        ThreatIndex threats = engine.getThreats();
+        engine.placeLetter(2, 2, SOSEngine.S);
+
+        assertEquals(1, threats.dangers(engine.getBoard().cellIndex(2, 4), BitBoard.S), "S_S along the row");
+        assertEquals(1, threats.dangers(engine.getBoard().cellIndex(2, 3), BitBoard.O), "SO_ along the row");
+        assertEquals(0, threats.dangers(engine.getBoard().cellIndex(2, 3), BitBoard.S), "SS_ is no threat");
+        assertEquals(0, threats.dangers(engine.getBoard().cellIndex(0, 1), BitBoard.S), "Not in a window with the S");
+
+        engine.placeLetter(2, 4, SOSEngine.O); // Spoils the S_S window
+        assertEquals(0, threats.dangers(engine.getBoard().cellIndex(2, 3), BitBoard.O), "Window is dead");
+    }
+
+    // Test the danger map against the change in open windows each move actually causes, over random positions
+    @Test
+    public void dangers_testMatchesPlacements() {
+        java.util.Random random = new java.util.Random(7);
+        for (int game = 0; game < 20; game++) {
+            SOSEngine engine = new SOSEngine(6, SOSEngine.Mode.GENERAL);
+            ThreatIndex threats = engine.getThreats();
+            for (int moves = random.nextInt(30); moves > 0; moves--) {
+                int cell = engine.getBoard().getFreeCells().pick(random);
+                engine.placeLetter(cell / 6, cell % 6, random.nextBoolean() ? SOSEngine.S : SOSEngine.O);
+            }
+
+            for (int i = 0; i < engine.getBoard().getFreeCells().size(); i++) {
+                int cell = engine.getBoard().getFreeCells().get(i);
+                for (int letter = BitBoard.S; letter <= BitBoard.O; letter++) {
+                    // Placing a letter kills the threats whose gap is the cell and creates the dangers
+                    SOSEngine copy = engine.copy();
+                    int before = copy.getThreats().getOpenWindowCount();
+                    int removed = threats.completions(cell, BitBoard.S) + threats.completions(cell, BitBoard.O);
+                    copy.placeLetter(cell / 6, cell % 6, letter);
+                    assertEquals(copy.getThreats().getOpenWindowCount() - before + removed, threats.dangers(cell, letter));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package test;
+
+import product.BitBoard;
+import product.TranspositionTable;
+import product.ZobristHash;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranspositionTableTest {
+
+    // Test that the board hash is updated incrementally and does not depend on move order
+    @Test
+    public void boardHash_testMoveOrderIndependent() {
+        BitBoard first = new BitBoard(4);
+        first.set(3, BitBoard.S);
+        first.set(9, BitBoard.O);
+
+        BitBoard second = new BitBoard(4);
+        second.set(9, BitBoard.O);
+        second.set(3, BitBoard.S);
+        assertEquals(first.getHash(), second.getHash());
+
+        second.remove(9);
+        assertEquals(ZobristHash.cellKey(3, BitBoard.S), second.getHash(), "Removing a letter should undo its key");
+    }
+
+    // Test storing and probing entries, including negative values
+    @Test
+    public void storeAndProbe_test() {
+        TranspositionTable table = new TranspositionTable(4);
+        table.store(12345L, -7, 3, TranspositionTable.LOWER, 42);
+
+        long entry = table.probe(12345L);
+        assertEquals(-7, TranspositionTable.value(entry));
+        assertEquals(3, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+        assertEquals(42, TranspositionTable.move(entry));
+        assertEquals(0L, table.probe(12345L + 16), "Different key in the same slot should miss");
+    }
+
+    // Test depth-preferred replacement
+    @Test
+    public void store_testDepthPreferred() {
+        TranspositionTable table = new TranspositionTable(4);
+        table.store(1L, 10, 5, TranspositionTable.EXACT, -1);
+        table.store(17L, 20, 2, TranspositionTable.EXACT, -1); // Same slot, shallower
+
+        assertNotEquals(0L, table.probe(1L), "Deeper entry should be kept");
+        assertEquals(0L, table.probe(17L));
+
+        table.store(17L, 20, 6, TranspositionTable.EXACT, -1); // Same slot, deeper
+        assertEquals(20, TranspositionTable.value(table.probe(17L)));
+    }
+}